@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.remoting.Channel;
+import hudson.remoting.Launcher;
+import hudson.slaves.ComputerListener;
+import hudson.slaves.OfflineCause;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.NodeListener;
+import jenkins.util.SystemProperties;
+
+/**
+ * Checks the versions of an agent while it connects, before it can take any work.
+ *
+ * <p>Incompatible agents are marked offline by the corresponding monitor, exactly as the periodic check would do,
+ * or rejected altogether when {@code hudson.plugin.versioncolumn.AgentVersionListener.rejectIncompatible} is set.
+ * The versions read here are kept in {@link AgentVersionStore}, so the monitors do not ask the agent again. An agent
+ * whose versions cannot be read is let through, and left to the periodic check.
+ */
+@Extension
+public class AgentVersionListener extends ComputerListener {
+
+    private static final Logger LOGGER = Logger.getLogger(AgentVersionListener.class.getName());
+
+    static /* non-final for script console */ boolean REJECT_INCOMPATIBLE =
+            SystemProperties.getBoolean(AgentVersionListener.class.getName() + ".rejectIncompatible");
+
+    @Override
+    public void preOnline(Computer c, Channel channel, FilePath root, TaskListener listener)
+            throws IOException, InterruptedException {
+        AgentVersionStore.get().connected(c, channel);
+        JVMVersionMonitor jvmMonitor = ComputerSet.getMonitors().get(JVMVersionMonitor.class);
+        VersionMonitor remotingMonitor = ComputerSet.getMonitors().get(VersionMonitor.class);
+        List<String> problems = new ArrayList<>();
+
+        String jvmVersion = null;
+        String remotingVersion = null;
+        if (jvmMonitor != null || remotingMonitor != null) {
+            // a single call, and a single class to load remotely, for both versions
+            VersionEvents.Probe event = VersionEvents.startProbe();
+            String outcome = VersionEvents.OUTCOME_FAILED;
+            String[] versions;
+            try {
+                versions = channel.call(new VersionProbe());
+                outcome = VersionEvents.OUTCOME_OK;
+            } catch (IOException | RuntimeException e) {
+                // never block a connection because of the versions, the monitors will try again
+                listener.getLogger().println(Messages.AgentVersionListener_ProbeFailed(e));
+                LOGGER.log(Level.FINE, "Failed to read the versions of " + c.getName() + " while connecting", e);
+                return;
+            } finally {
+                VersionEvents.endProbe(event, c, VersionProbe.class, VersionEvents.SOURCE_CONNECT, outcome);
+            }
+            jvmVersion = VersionKeys.intern(versions[VersionProbe.JVM]);
+            remotingVersion = VersionKeys.intern(versions[VersionProbe.REMOTING]);
+            AgentVersionStore.get().recordJvmVersion(c, channel, jvmVersion);
+            AgentVersionStore.get().recordRemotingVersion(c, channel, remotingVersion);
+        }
+        if (jvmMonitor != null
+                && !jvmMonitor.isIgnored()
+                && jvmMonitor.getState(c, jvmVersion) == CompatibilityState.MISMATCH) {
+            problems.add(Messages.AgentVersionListener_JvmIncompatible(jvmVersion, Runtime.version()));
+        }
+        if (remotingMonitor != null
+                && !remotingMonitor.isIgnored()
+                && remotingMonitor.getState(remotingVersion) != CompatibilityState.OK) {
+            problems.add(Messages.AgentVersionListener_RemotingIncompatible(remotingVersion, Launcher.VERSION));
+        }
+
+        for (String problem : problems) {
+            listener.getLogger().println(problem);
+        }
+        if (REJECT_INCOMPATIBLE && !problems.isEmpty()) {
+            LOGGER.warning(() -> "Rejecting " + c.getName() + ": " + problems);
+            throw new AbortException(Messages.AgentVersionListener_Rejected(c.getName()));
+        }
+
+        if (jvmMonitor != null) {
+            ((JVMVersionMonitor.JvmVersionDescriptor) jvmMonitor.getDescriptor())
+                    .markNodeOfflineOrOnline(c, jvmVersion, jvmMonitor);
+        }
+        if (remotingMonitor != null) {
+            ((VersionMonitor.DescriptorImpl) remotingMonitor.getDescriptor())
+                    .markNodeOfflineOrOnline(c, remotingVersion, remotingMonitor);
+        }
+    }
+
+    @Override
+    public void onOffline(@NonNull Computer c, @CheckForNull OfflineCause cause) {
+        AgentVersionStore.get().detach(c.getName());
+    }
+
+    /**
+     * Forgets about deleted nodes right away, rather than waiting for their entries to be evicted, and about the
+     * label policy of updated ones.
+     */
+    @Extension
+    public static class NodeChangeListener extends NodeListener {
+
+        @Override
+        protected void onUpdated(@NonNull Node oldOne, @NonNull Node newOne) {
+            AgentVersionStore.get().invalidatePolicy(oldOne.getNodeName());
+            AgentVersionStore.get().invalidatePolicy(newOne.getNodeName());
+        }
+
+        @Override
+        protected void onDeleted(@NonNull Node node) {
+            AgentVersionStore.get().remove(node.getNodeName());
+        }
+    }
+}
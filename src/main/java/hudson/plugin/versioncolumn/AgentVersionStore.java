@@ -0,0 +1,643 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Computer;
+import hudson.remoting.Channel;
+import hudson.remoting.VirtualChannel;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import jenkins.util.SystemProperties;
+
+/**
+ * Versions reported by each agent, remembered for the lifetime of the channel they were read from.
+ *
+ * <p>The JVM and remoting versions of an agent cannot change while its channel stays open, so once known they are
+ * reused instead of asking the agent again on every monitoring cycle.
+ *
+ * <p>Entries are keyed by node name rather than by {@link Computer}. Their channel-bound data is dropped as soon as
+ * the agent disconnects, the whole entry when the node is deleted (see {@link AgentVersionListener}), and their
+ * number is capped so that a burst of short-lived agents cannot grow the store without bound. What survives a
+ * reconnection is the {@link VersionHistory} of the agent, whose total size is capped as well: the streaks of matches
+ * and mismatches are counted per channel.
+ */
+final class AgentVersionStore {
+
+    static final int DEFAULT_MAX_ENTRIES =
+            SystemProperties.getInteger(AgentVersionStore.class.getName() + ".maxEntries", 100_000);
+    static final int DEFAULT_HISTORY_SIZE =
+            SystemProperties.getInteger(AgentVersionStore.class.getName() + ".historySize", 32);
+    static final long DEFAULT_MAX_HISTORY_SLOTS =
+            SystemProperties.getLong(AgentVersionStore.class.getName() + ".maxHistorySlots", 1_000_000L);
+
+    /** Generation of policies no cached policy belongs to, the first one being 1. */
+    static final int NO_GENERATION = 0;
+
+    private static final AgentVersionStore INSTANCE =
+            new AgentVersionStore(DEFAULT_MAX_ENTRIES, DEFAULT_HISTORY_SIZE, DEFAULT_MAX_HISTORY_SLOTS);
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong historySlots = new AtomicLong();
+    /** Names of the agents that may be draining, so that they can be found without going through all entries. */
+    private final Set<String> draining = ConcurrentHashMap.newKeySet();
+    private final int maxEntries;
+    private final int historySize;
+    private final long maxHistorySlots;
+
+    AgentVersionStore(int maxEntries) {
+        this(maxEntries, DEFAULT_HISTORY_SIZE, DEFAULT_MAX_HISTORY_SLOTS);
+    }
+
+    AgentVersionStore(int maxEntries, int historySize, long maxHistorySlots) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.historySize = Math.max(0, historySize);
+        this.maxHistorySlots = maxHistorySlots;
+    }
+
+    static AgentVersionStore get() {
+        return INSTANCE;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return the number of history slots currently allocated across all agents.
+     */
+    long getHistorySlots() {
+        return historySlots.get();
+    }
+
+    /**
+     * Forgets everything known about the given node.
+     */
+    void remove(@CheckForNull String name) {
+        if (name != null) {
+            Entry entry = entries.remove(name);
+            if (entry != null) {
+                release(entry);
+            }
+        }
+    }
+
+    /**
+     * Forgets what was read from the current channel of the given node, keeping its history.
+     */
+    void detach(@CheckForNull String name) {
+        if (name != null) {
+            Entry entry = entries.get(name);
+            if (entry != null) {
+                entry.detach();
+                forgetReadiness(entry);
+            }
+        }
+    }
+
+    /**
+     * @return the JVM version read from the given channel of this computer, or {@code null} if not known yet.
+     */
+    @CheckForNull
+    String getJvmVersion(@NonNull Computer c, @CheckForNull VirtualChannel channel) {
+        Entry entry = current(c, channel);
+        return entry == null ? null : entry.jvmVersion;
+    }
+
+    /**
+     * @return the remoting version read from the given channel of this computer, or {@code null} if not known yet.
+     */
+    @CheckForNull
+    String getRemotingVersion(@NonNull Computer c, @CheckForNull VirtualChannel channel) {
+        Entry entry = current(c, channel);
+        return entry == null ? null : entry.remotingVersion;
+    }
+
+    void recordJvmVersion(@NonNull Computer c, @NonNull VirtualChannel channel, @CheckForNull String version) {
+        recordJvmVersion(c.getName(), channel, version);
+    }
+
+    void recordJvmVersion(@CheckForNull String name, @NonNull VirtualChannel channel, @CheckForNull String version) {
+        Entry entry = attach(name, channel);
+        if (entry != null) {
+            entry.setJvmVersion(VersionKeys.intern(version));
+            if (version != null) {
+                entry.setFailed(VersionHistory.Kind.JVM, false);
+            }
+            firstProbe(entry, VersionHistory.Kind.JVM);
+        }
+    }
+
+    void recordRemotingVersion(@NonNull Computer c, @NonNull VirtualChannel channel, @CheckForNull String version) {
+        recordRemotingVersion(c.getName(), channel, version);
+    }
+
+    void recordRemotingVersion(
+            @CheckForNull String name, @NonNull VirtualChannel channel, @CheckForNull String version) {
+        if (version != null && channel instanceof Channel ch) {
+            // outlives the entry, should it be evicted while the agent is still connected
+            ch.setProperty(VersionMonitor.REMOTING_VERSION, version);
+        }
+        Entry entry = attach(name, channel);
+        if (entry != null) {
+            entry.remotingVersion = VersionKeys.intern(version);
+            if (version != null) {
+                entry.setFailed(VersionHistory.Kind.REMOTING, false);
+            }
+            firstProbe(entry, VersionHistory.Kind.REMOTING);
+        }
+    }
+
+    /**
+     * Notes when the given channel of this computer was established, to measure how long it takes to probe it.
+     */
+    void connected(@NonNull Computer c, @NonNull VirtualChannel channel) {
+        Entry entry = attach(c.getName(), channel);
+        if (entry != null) {
+            entry.connectedAt = System.currentTimeMillis();
+        }
+    }
+
+    private static void firstProbe(Entry entry, VersionHistory.Kind kind) {
+        long elapsed = entry.firstProbe(kind);
+        if (elapsed >= 0) {
+            MonitorMetrics.of(kind).firstProbe(elapsed);
+        }
+    }
+
+    /**
+     * Notes that reading the version of the given kind from the given channel failed, see {@link #isRetry}.
+     */
+    void probeFailed(@NonNull Computer c, @NonNull VirtualChannel channel, @NonNull VersionHistory.Kind kind) {
+        Entry entry = attach(c.getName(), channel);
+        if (entry != null) {
+            entry.setFailed(kind, true);
+        }
+    }
+
+    /**
+     * @return whether reading the version of the given kind would be a new attempt after a failed one on the same
+     *     channel, rather than the first read from a newly connected agent.
+     */
+    boolean isRetry(@NonNull Computer c, @CheckForNull VirtualChannel channel, @NonNull VersionHistory.Kind kind) {
+        Entry entry = current(c, channel);
+        return entry != null && (entry.failed & (1 << kind.ordinal())) != 0;
+    }
+
+    /**
+     * @return whether the JDKs installed on this computer were not looked for on the given channel since the given
+     *     time.
+     */
+    boolean isJdkScanDue(@NonNull Computer c, @NonNull VirtualChannel channel, long since) {
+        Entry entry = current(c, channel);
+        return entry == null || entry.jdks == null || entry.jdksScanned < since;
+    }
+
+    /**
+     * @return the JDKs found on the given node while it is connected, or an empty list if not known.
+     */
+    @NonNull
+    List<InstalledJdk> getJdks(@CheckForNull String name) {
+        Entry entry = name == null ? null : entries.get(name);
+        List<InstalledJdk> jdks = entry == null ? null : entry.jdks;
+        return jdks == null ? List.of() : jdks;
+    }
+
+    /**
+     * @return the JDKs previously known for this computer, or {@code null} if none were.
+     */
+    @CheckForNull
+    List<InstalledJdk> recordJdks(
+            @NonNull Computer c, @NonNull VirtualChannel channel, @NonNull List<InstalledJdk> jdks) {
+        Entry entry = attach(c.getName(), channel);
+        if (entry == null) {
+            return null;
+        }
+        List<InstalledJdk> previous = entry.jdks;
+        entry.jdks = jdks;
+        entry.jdksScanned = System.currentTimeMillis();
+        return previous;
+    }
+
+    /**
+     * Adds the outcome of a check to the history of the agent, if it differs from the previous one of that kind.
+     */
+    void recordState(
+            @CheckForNull String name,
+            @NonNull VersionHistory.Kind kind,
+            @CheckForNull String version,
+            @NonNull CompatibilityState state) {
+        if (name == null) {
+            return;
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            return;
+        }
+        VersionHistory history = historyOf(entry);
+        if (history != null) {
+            history.record(System.currentTimeMillis(), kind, version, state);
+        }
+    }
+
+    /**
+     * Counts one more consecutive match or mismatch of the given kind for the agent.
+     *
+     * @return the length of the current streak of identical outcomes, including this one, or
+     *     {@link Integer#MAX_VALUE} for an agent the store does not track, so that no threshold holds it back.
+     */
+    int observe(@CheckForNull String name, @NonNull VersionHistory.Kind kind, boolean compatible) {
+        Entry entry = name == null ? null : entries.get(name);
+        return entry == null ? Integer.MAX_VALUE : entry.observe(kind, compatible);
+    }
+
+    /**
+     * Stops the given agent from accepting new tasks because of a mismatch of the given kind, see {@link Drain}.
+     *
+     * @return whether it was not draining for that reason yet
+     */
+    boolean startDraining(@CheckForNull String name, @NonNull VersionHistory.Kind kind) {
+        Entry entry = name == null ? null : entries.get(name);
+        if (entry == null) {
+            return false;
+        }
+        draining.add(name);
+        return entry.setDraining(kind, true);
+    }
+
+    void stopDraining(@CheckForNull String name, @NonNull VersionHistory.Kind kind) {
+        Entry entry = name == null ? null : entries.get(name);
+        if (entry != null && entry.draining != 0) {
+            entry.setDraining(kind, false);
+        }
+    }
+
+    /**
+     * @return whether the given agent is draining because of a mismatch of any kind. This is called for each
+     *     candidate node whenever the queue is maintained, so it must stay cheap.
+     */
+    boolean isDraining(@CheckForNull String name) {
+        Entry entry = name == null ? null : entries.get(name);
+        return entry != null && entry.draining != 0;
+    }
+
+    boolean isDraining(@CheckForNull String name, @NonNull VersionHistory.Kind kind) {
+        Entry entry = name == null ? null : entries.get(name);
+        return entry != null && (entry.draining & (1 << kind.ordinal())) != 0;
+    }
+
+    /**
+     * @return the names of the agents currently draining, forgetting about those that stopped.
+     */
+    List<String> getDraining() {
+        List<String> names = new ArrayList<>();
+        for (String name : draining) {
+            if (isDraining(name)) {
+                names.add(name);
+            } else {
+                draining.remove(name);
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Counts the given agent as ready or not for the target version of the given kind, see {@link Readiness}.
+     */
+    void recordReadiness(@CheckForNull String name, @NonNull VersionHistory.Kind kind, byte state) {
+        Entry entry = name == null ? null : entries.get(name);
+        if (entry != null) {
+            Readiness.of(kind).update(entry, state);
+        }
+    }
+
+    /**
+     * Declares another target version of the given kind, to count agents against from now on.
+     */
+    void retarget(@NonNull VersionHistory.Kind kind, @CheckForNull String target) {
+        Readiness.of(kind).retarget(target, entries.values());
+    }
+
+    /**
+     * @return the length of the current streak of identical outcomes for the given agent, 0 if it is not tracked.
+     */
+    int getStreak(@CheckForNull String name, @NonNull VersionHistory.Kind kind) {
+        Entry entry = name == null ? null : entries.get(name);
+        return entry == null ? 0 : entry.getStreak(kind);
+    }
+
+    /**
+     * @return the comparison mode of the label policy covering the agent, or {@code null} if none does, as cached
+     *     under the given generation of policies, resolving and caching it if needed. Agents the store does not track
+     *     are resolved every time.
+     */
+    @CheckForNull
+    JVMVersionComparator.ComparisonMode resolvePolicy(
+            @CheckForNull String name,
+            int generation,
+            @NonNull Supplier<JVMVersionComparator.ComparisonMode> resolver) {
+        Entry entry = name == null ? null : entries.get(name);
+        if (entry == null) {
+            return resolver.get();
+        }
+        if (entry.policyGeneration != generation) {
+            JVMVersionComparator.ComparisonMode mode = resolver.get();
+            entry.policyMode = mode;
+            entry.policyGeneration = generation;
+            return mode;
+        }
+        return entry.policyMode;
+    }
+
+    /**
+     * Forgets the policy cached for the given node, typically because its labels changed.
+     */
+    void invalidatePolicy(@CheckForNull String name) {
+        Entry entry = name == null ? null : entries.get(name);
+        if (entry != null) {
+            entry.policyGeneration = NO_GENERATION;
+        }
+    }
+
+    /**
+     * @return the recorded history of the given node, oldest first.
+     */
+    @NonNull
+    List<VersionHistory.Event> getHistory(@CheckForNull String name) {
+        Entry entry = name == null ? null : entries.get(name);
+        VersionHistory history = entry == null ? null : entry.history;
+        return history == null ? List.of() : history.getEvents();
+    }
+
+    @CheckForNull
+    private VersionHistory historyOf(Entry entry) {
+        VersionHistory history = entry.history;
+        if (history != null || historySize == 0) {
+            return history;
+        }
+        synchronized (entry) {
+            if (entry.history == null) {
+                if (historySlots.addAndGet(historySize) <= maxHistorySlots) {
+                    entry.history = new VersionHistory(historySize);
+                } else {
+                    // fleet-wide budget exhausted: this agent goes without history
+                    historySlots.addAndGet(-historySize);
+                }
+            }
+            return entry.history;
+        }
+    }
+
+    private void release(Entry entry) {
+        synchronized (entry) {
+            if (entry.history != null) {
+                entry.history = null;
+                historySlots.addAndGet(-historySize);
+            }
+        }
+        forgetReadiness(entry);
+    }
+
+    private static void forgetReadiness(Entry entry) {
+        Readiness.JVM.update(entry, Readiness.NONE);
+        Readiness.REMOTING.update(entry, Readiness.NONE);
+    }
+
+    @CheckForNull
+    private Entry current(Computer c, VirtualChannel channel) {
+        String name = c.getName();
+        if (name == null || channel == null) {
+            return null;
+        }
+        Entry entry = entries.get(name);
+        return entry != null && entry.isFor(channel) ? entry : null;
+    }
+
+    @CheckForNull
+    private Entry attach(String name, VirtualChannel channel) {
+        if (name == null) {
+            return null;
+        }
+        Entry entry = entries.get(name);
+        if (entry == null) {
+            if (entries.size() >= maxEntries) {
+                trim();
+            }
+            entry = entries.computeIfAbsent(name, k -> new Entry(k, sequence.incrementAndGet()));
+        }
+        entry.attach(channel);
+        return entry;
+    }
+
+    /**
+     * Makes room for new entries: first drops those without a channel, then the oldest tenth of the rest.
+     */
+    private synchronized void trim() {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            if (e.getValue().isStale() && entries.remove(e.getKey(), e.getValue())) {
+                release(e.getValue());
+            }
+        }
+        int excess = entries.size() - maxEntries + Math.max(1, maxEntries / 10);
+        if (excess <= 0) {
+            return;
+        }
+        List<Map.Entry<String, Entry>> oldest = new ArrayList<>(entries.entrySet());
+        oldest.sort(Comparator.comparingLong(e -> e.getValue().sequence));
+        for (int i = 0; i < excess && i < oldest.size(); i++) {
+            if (entries.remove(oldest.get(i).getKey(), oldest.get(i).getValue())) {
+                release(oldest.get(i).getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the entries of all agents that are still connected, in no particular order.
+     */
+    List<Entry> snapshot() {
+        List<Entry> snapshot = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            if (!entry.isStale()) {
+                snapshot.add(entry);
+            }
+        }
+        return snapshot;
+    }
+
+    static final class Entry {
+
+        private static final WeakReference<VirtualChannel> NO_CHANNEL = new WeakReference<>(null);
+
+        private final String name;
+        private final long sequence;
+        private volatile WeakReference<VirtualChannel> channel = NO_CHANNEL;
+        private volatile String jvmVersion;
+        private volatile Runtime.Version parsedJvmVersion;
+        private volatile String remotingVersion;
+        private volatile List<InstalledJdk> jdks;
+        private volatile long jdksScanned;
+        private volatile long connectedAt;
+        /** Bit set of the {@link VersionHistory.Kind}s already probed on the current channel. */
+        private int probed;
+        /** Bit set of the {@link VersionHistory.Kind}s of mismatch the agent is draining for. */
+        private volatile int draining;
+        /** Bit set of the {@link VersionHistory.Kind}s whose last read on the current channel failed. */
+        private volatile int failed;
+        private volatile VersionHistory history;
+        /** Consecutive identical outcomes per {@link VersionHistory.Kind}, negative for mismatches. */
+        private final short[] streaks = new short[VersionHistory.Kind.values().length];
+        /** {@link Readiness} state per {@link VersionHistory.Kind}, guarded by the corresponding {@link Readiness}. */
+        final byte[] readiness = new byte[VersionHistory.Kind.values().length];
+        /** Comparison mode of the label policy covering the agent, {@code null} for none. */
+        private volatile JVMVersionComparator.ComparisonMode policyMode;
+        /** Generation of the policies {@link #policyMode} was resolved against. */
+        private volatile int policyGeneration = NO_GENERATION;
+
+        private Entry(String name, long sequence) {
+            this.name = name;
+            this.sequence = sequence;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        @CheckForNull
+        String getJvmVersion() {
+            return jvmVersion;
+        }
+
+        /**
+         * @return the JVM version parsed once when recorded, or {@code null} if unknown or unparseable.
+         */
+        @CheckForNull
+        Runtime.Version getParsedJvmVersion() {
+            return parsedJvmVersion;
+        }
+
+        @CheckForNull
+        String getRemotingVersion() {
+            return remotingVersion;
+        }
+
+        private void setJvmVersion(String version) {
+            Runtime.Version parsed = null;
+            if (version != null) {
+                try {
+                    parsed = Runtime.Version.parse(version);
+                } catch (IllegalArgumentException e) {
+                    // reported by the monitor itself
+                }
+            }
+            this.parsedJvmVersion = parsed;
+            this.jvmVersion = version;
+        }
+
+        private synchronized int observe(VersionHistory.Kind kind, boolean compatible) {
+            int streak = streaks[kind.ordinal()];
+            if (compatible) {
+                streak = streak > 0 ? Math.min(streak + 1, Short.MAX_VALUE) : 1;
+            } else {
+                streak = streak < 0 ? Math.max(streak - 1, -Short.MAX_VALUE) : -1;
+            }
+            streaks[kind.ordinal()] = (short) streak;
+            return Math.abs(streak);
+        }
+
+        private synchronized boolean setDraining(VersionHistory.Kind kind, boolean on) {
+            int bit = 1 << kind.ordinal();
+            int previous = draining;
+            draining = on ? previous | bit : previous & ~bit;
+            return (previous & bit) == 0;
+        }
+
+        private synchronized void setFailed(VersionHistory.Kind kind, boolean on) {
+            int bit = 1 << kind.ordinal();
+            failed = on ? failed | bit : failed & ~bit;
+        }
+
+        private synchronized int getStreak(VersionHistory.Kind kind) {
+            return Math.abs(streaks[kind.ordinal()]);
+        }
+
+        /**
+         * @return milliseconds since the channel was established if this is the first probe of its kind on it, or -1.
+         */
+        private synchronized long firstProbe(VersionHistory.Kind kind) {
+            int bit = 1 << kind.ordinal();
+            if (connectedAt == 0 || (probed & bit) != 0) {
+                return -1;
+            }
+            probed |= bit;
+            return Math.max(0, System.currentTimeMillis() - connectedAt);
+        }
+
+        private synchronized void attach(VirtualChannel channel) {
+            if (this.channel.get() != channel) {
+                clear();
+                this.channel = new WeakReference<>(channel);
+            }
+        }
+
+        private synchronized void detach() {
+            clear();
+            this.channel = NO_CHANNEL;
+        }
+
+        private void clear() {
+            jvmVersion = null;
+            parsedJvmVersion = null;
+            remotingVersion = null;
+            jdks = null;
+            connectedAt = 0;
+            probed = 0;
+            draining = 0;
+            failed = 0;
+            // a new connection starts counting afresh
+            Arrays.fill(streaks, (short) 0);
+        }
+
+        boolean isStale() {
+            return channel.get() == null;
+        }
+
+        boolean isFor(VirtualChannel channel) {
+            return this.channel.get() == channel;
+        }
+    }
+}
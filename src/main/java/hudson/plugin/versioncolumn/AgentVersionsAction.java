@@ -0,0 +1,128 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Action;
+import hudson.model.Api;
+import hudson.model.Computer;
+import hudson.model.TransientComputerActionFactory;
+import hudson.security.Permission;
+import java.util.Collection;
+import java.util.List;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Shows what the plugin knows about the versions of one agent, on its page and through the remote API, to users who
+ * may read the configuration of that agent or of the controller.
+ */
+@ExportedBean
+public class AgentVersionsAction implements Action {
+
+    private final Computer computer;
+
+    AgentVersionsAction(Computer computer) {
+        this.computer = computer;
+    }
+
+    public Computer getComputer() {
+        return computer;
+    }
+
+    /**
+     * @return the permissions any of which allows to see this page.
+     */
+    public Permission[] getViewPermissions() {
+        return new Permission[] {Computer.EXTENDED_READ, Jenkins.SYSTEM_READ};
+    }
+
+    private boolean isVisible() {
+        return computer.hasAnyPermission(getViewPermissions());
+    }
+
+    @Override
+    public String getIconFileName() {
+        return isVisible() ? "symbol-details" : null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return Messages.AgentVersionsAction_DisplayName();
+    }
+
+    @Override
+    public String getUrlName() {
+        return isVisible() ? "versions" : null;
+    }
+
+    public Api getApi() {
+        computer.checkAnyPermission(getViewPermissions());
+        return new Api(this);
+    }
+
+    /**
+     * @return the version changes observed on this agent, oldest first.
+     */
+    @Exported
+    public List<VersionHistory.Event> getHistory() {
+        return AgentVersionStore.get().getHistory(computer.getName());
+    }
+
+    /**
+     * @return the JDKs found on this agent by {@link JdkInventory} while it is connected.
+     */
+    @Exported
+    public List<InstalledJdk> getJdks() {
+        return AgentVersionStore.get().getJdks(computer.getName());
+    }
+
+    /**
+     * @return whether this agent is kept from taking new tasks until its running builds are over, see
+     *     {@link EnforcementMode#DRAIN}.
+     */
+    @Exported
+    public boolean isDraining() {
+        return AgentVersionStore.get().isDraining(computer.getName());
+    }
+
+    /**
+     * @return the number of builds still running on this agent while it is draining, or {@code -1} if it is not.
+     */
+    @Exported
+    public int getBuildsLeft() {
+        return isDraining() ? computer.countBusy() : -1;
+    }
+
+    @Extension
+    public static class Factory extends TransientComputerActionFactory {
+
+        @Override
+        public Collection<? extends Action> createFor(@NonNull Computer target) {
+            return List.of(new AgentVersionsAction(target));
+        }
+    }
+}
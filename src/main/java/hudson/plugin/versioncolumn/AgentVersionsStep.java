@@ -0,0 +1,126 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import hudson.AbortException;
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.remoting.VirtualChannel;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.jenkinsci.plugins.workflow.steps.Step;
+import org.jenkinsci.plugins.workflow.steps.StepContext;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+import org.jenkinsci.plugins.workflow.steps.StepExecution;
+import org.jenkinsci.plugins.workflow.steps.StepExecutions;
+import org.kohsuke.stapler.DataBoundConstructor;
+
+/**
+ * {@code agentVersions()} returns the JVM and remoting versions of the agent running the enclosing {@code node}
+ * block, as already known to the monitors.
+ *
+ * <p>When both versions are known for the current channel the step completes synchronously without any remote call;
+ * otherwise the missing ones are read from the agent, off the CPS thread, and remembered for the next callers.
+ */
+public class AgentVersionsStep extends Step {
+
+    @DataBoundConstructor
+    public AgentVersionsStep() {}
+
+    @Override
+    public StepExecution start(StepContext context) throws Exception {
+        Computer computer = context.get(Computer.class);
+        if (computer == null) {
+            throw new AbortException(Messages.AgentVersionsStep_NoComputer());
+        }
+        VirtualChannel channel = computer.getChannel();
+        if (channel == null) {
+            throw new AbortException(Messages.AgentVersionsStep_Offline(computer.getName()));
+        }
+        AgentVersionStore store = AgentVersionStore.get();
+        String jvmVersion = store.getJvmVersion(computer, channel);
+        String remotingVersion = store.getRemotingVersion(computer, channel);
+        if (jvmVersion != null && remotingVersion != null) {
+            Map<String, Object> versions = toMap(jvmVersion, remotingVersion, true);
+            return StepExecutions.synchronous(context, c -> versions);
+        }
+        return StepExecutions.synchronousNonBlocking(context, c -> probe(c.get(Computer.class)));
+    }
+
+    private static Map<String, Object> probe(Computer computer) throws IOException, InterruptedException {
+        VirtualChannel channel = computer.getChannel();
+        if (channel == null) {
+            throw new AbortException(Messages.AgentVersionsStep_Offline(computer.getName()));
+        }
+        AgentVersionStore store = AgentVersionStore.get();
+        String jvmVersion = store.getJvmVersion(computer, channel);
+        String remotingVersion = store.getRemotingVersion(computer, channel);
+        if (jvmVersion == null || remotingVersion == null) {
+            String[] versions = channel.call(new VersionProbe());
+            jvmVersion = VersionKeys.intern(versions[VersionProbe.JVM]);
+            remotingVersion = VersionKeys.intern(versions[VersionProbe.REMOTING]);
+            store.recordJvmVersion(computer, channel, jvmVersion);
+            store.recordRemotingVersion(computer, channel, remotingVersion);
+        }
+        return toMap(jvmVersion, remotingVersion, false);
+    }
+
+    private static Map<String, Object> toMap(String jvmVersion, String remotingVersion, boolean cached) {
+        Map<String, Object> versions = new LinkedHashMap<>();
+        versions.put("jvmVersion", jvmVersion);
+        Integer feature = null;
+        if (jvmVersion != null) {
+            try {
+                feature = Runtime.Version.parse(jvmVersion).feature();
+            } catch (IllegalArgumentException e) {
+                // left unset
+            }
+        }
+        versions.put("jvmFeatureVersion", feature);
+        versions.put("remotingVersion", remotingVersion);
+        versions.put("cached", cached);
+        return versions;
+    }
+
+    @Extension(optional = true)
+    public static class DescriptorImpl extends StepDescriptor {
+
+        @Override
+        public String getFunctionName() {
+            return "agentVersions";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return Messages.AgentVersionsStep_DisplayName();
+        }
+
+        @Override
+        public Set<? extends Class<?>> getRequiredContext() {
+            return Set.of(Computer.class);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.ExtensionList;
+import hudson.model.AbstractBuild;
+import hudson.model.Computer;
+import hudson.model.Executor;
+import hudson.model.ExecutorListener;
+import hudson.model.InvisibleAction;
+import hudson.model.Node;
+import hudson.model.Queue;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.model.listeners.RunListener;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Versions of the agent a build ran on, as known by the monitors when it started, exported with the build.
+ */
+@ExportedBean
+public class BuildAgentVersions extends InvisibleAction {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildAgentVersions.class.getName());
+
+    /** Guards the check for an existing stamp, as a build is a core object others may synchronize on. */
+    private static final Object STAMP_LOCK = new Object();
+
+    private final String node;
+    private final String jvmVersion;
+    private final String remotingVersion;
+
+    BuildAgentVersions(String node, @CheckForNull String jvmVersion, @CheckForNull String remotingVersion) {
+        this.node = node;
+        this.jvmVersion = jvmVersion;
+        this.remotingVersion = remotingVersion;
+    }
+
+    @Exported
+    public String getNode() {
+        return node;
+    }
+
+    @CheckForNull
+    @Exported
+    public String getJvmVersion() {
+        return jvmVersion;
+    }
+
+    @CheckForNull
+    @Exported
+    public String getRemotingVersion() {
+        return remotingVersion;
+    }
+
+    /**
+     * Adds the versions already known for the given agent to the build, without any remote call, unless it was
+     * already stamped for that agent.
+     *
+     * @return whether the build was stamped
+     */
+    static boolean stamp(@NonNull Run<?, ?> run, @NonNull Computer c) {
+        String jvmVersion = ExtensionList.lookupSingleton(JVMVersionMonitor.JvmVersionDescriptor.class).get(c);
+        String remotingVersion = ExtensionList.lookupSingleton(VersionMonitor.DescriptorImpl.class).get(c);
+        // parallel branches of a Pipeline may start on the same agent at once
+        synchronized (STAMP_LOCK) {
+            for (BuildAgentVersions versions : run.getActions(BuildAgentVersions.class)) {
+                if (versions.getNode().equals(c.getName())) {
+                    return false;
+                }
+            }
+            run.addAction(new BuildAgentVersions(c.getName(), jvmVersion, remotingVersion));
+            return true;
+        }
+    }
+
+    /**
+     * Stamps builds with the versions already known for their agent, and keeps the {@link BuildDurations} per JVM
+     * version.
+     *
+     * <p>Builds that run on a single node are stamped when they start. A Pipeline gets one stamp per agent, as its
+     * {@code node} blocks start there, see {@link NodeBlockStamper}, and its duration is only kept when all of its
+     * agents run the same JVM version.
+     */
+    @Extension
+    public static class Stamper extends RunListener<Run<?, ?>> {
+
+        @Override
+        public void onStarted(Run<?, ?> run, TaskListener listener) {
+            if (run instanceof AbstractBuild<?, ?> build) {
+                Node node = build.getBuiltOn();
+                Computer c = node == null ? null : node.toComputer();
+                if (c != null) {
+                    stamp(build, c);
+                }
+            }
+        }
+
+        @Override
+        public void onCompleted(Run<?, ?> run, @NonNull TaskListener listener) {
+            String jvmVersion = null;
+            for (BuildAgentVersions versions : run.getActions(BuildAgentVersions.class)) {
+                if (versions.getJvmVersion() == null
+                        || (jvmVersion != null && !jvmVersion.equals(versions.getJvmVersion()))) {
+                    return;
+                }
+                jvmVersion = versions.getJvmVersion();
+            }
+            if (jvmVersion == null) {
+                return;
+            }
+            long duration = run.getDuration();
+            if (duration <= 0) {
+                duration = System.currentTimeMillis() - run.getStartTimeInMillis();
+            }
+            BuildDurations.record(jvmVersion, duration);
+        }
+    }
+
+    /**
+     * Stamps the build owning a piece of work started on an agent, such as a {@code node} block of a Pipeline, which
+     * {@link Stamper} does not see since the build itself runs elsewhere.
+     *
+     * <p>The build is saved right away, as it may run for a long time and the stamp would otherwise be lost to a
+     * restart of the controller before it completes.
+     */
+    @Extension
+    public static class NodeBlockStamper implements ExecutorListener {
+
+        @Override
+        public void taskStarted(Executor executor, Queue.Task task) {
+            Queue.Executable executable = executor.getCurrentExecutable();
+            if (executable == null || executable instanceof Run) {
+                // whole builds are stamped by Stamper
+                return;
+            }
+            if (executable.getParentExecutable() instanceof Run<?, ?> run && stamp(run, executor.getOwner())) {
+                try {
+                    run.save();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Failed to save the agent versions of " + run, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Durations of the builds that ran on agents of one JVM version, since the controller started, exported through
+ * {@link VersionColumnAction}.
+ *
+ * <p>Each completed build is added in O(1) to a histogram of logarithmic buckets, 10% wide, from which the 95th
+ * percentile is read within 10%. Versions beyond
+ * {@code hudson.plugin.versioncolumn.BuildDurations.maxVersions} are not tracked.
+ */
+@ExportedBean(defaultVisibility = 2)
+public final class BuildDurations {
+
+    static final int MAX_VERSIONS = SystemProperties.getInteger(BuildDurations.class.getName() + ".maxVersions", 256);
+
+    private static final double BUCKET_GROWTH = 1.1;
+    /** Enough for durations of more than a year. */
+    private static final int BUCKETS = 256;
+
+    private static final Map<String, BuildDurations> BY_VERSION = new ConcurrentHashMap<>();
+
+    private final String jvmVersion;
+    private final int[] histogram = new int[BUCKETS];
+    private long count;
+    private long total;
+    private long max;
+
+    BuildDurations(String jvmVersion) {
+        this.jvmVersion = jvmVersion;
+    }
+
+    static void record(@NonNull String jvmVersion, long duration) {
+        BuildDurations durations = BY_VERSION.get(jvmVersion);
+        if (durations == null) {
+            if (BY_VERSION.size() >= MAX_VERSIONS) {
+                return;
+            }
+            durations = BY_VERSION.computeIfAbsent(VersionKeys.intern(jvmVersion), BuildDurations::new);
+        }
+        durations.add(duration);
+    }
+
+    /**
+     * @return the durations of all JVM versions, by version.
+     */
+    @NonNull
+    static List<BuildDurations> all() {
+        List<BuildDurations> all = new ArrayList<>(BY_VERSION.values());
+        all.sort(Comparator.comparing(BuildDurations::getJvmVersion));
+        return all;
+    }
+
+    synchronized void add(long duration) {
+        duration = Math.max(0, duration);
+        histogram[bucketOf(duration)]++;
+        count++;
+        total += duration;
+        max = Math.max(max, duration);
+    }
+
+    static int bucketOf(long duration) {
+        if (duration <= 1) {
+            return 0;
+        }
+        return (int) Math.min(BUCKETS - 1, Math.ceil(Math.log(duration) / Math.log(BUCKET_GROWTH)));
+    }
+
+    @Exported
+    public String getJvmVersion() {
+        return jvmVersion;
+    }
+
+    /**
+     * @return the number of completed builds.
+     */
+    @Exported
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return the mean duration of the builds, in milliseconds.
+     */
+    @Exported
+    public synchronized long getMeanDuration() {
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * @return the duration 95% of the builds did not exceed, in milliseconds, rounded up to the bound of its bucket.
+     */
+    @Exported
+    public synchronized long getP95Duration() {
+        long rank = (long) Math.ceil(count * 0.95);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += histogram[bucket];
+            if (seen >= rank && seen > 0) {
+                return Math.min(max, Math.round(Math.pow(BUCKET_GROWTH, bucket)));
+            }
+        }
+        return 0;
+    }
+}
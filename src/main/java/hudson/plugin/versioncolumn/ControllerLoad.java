@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Tells whether the controller is too busy for remote calls that can wait, exported through
+ * {@link VersionColumnAction}.
+ *
+ * <p>The controller counts as saturated when the build queue is longer than
+ * {@code hudson.plugin.versioncolumn.ControllerLoad.maxQueueLength}, or when the system load average exceeds
+ * {@code hudson.plugin.versioncolumn.ControllerLoad.maxLoadPerProcessor} times the number of processors. Both are
+ * sampled at most every few seconds, so that asking stays cheap in a loop over all agents.
+ *
+ * <p>While saturated, the JDK inventory is put off, and so are new attempts at reading the version of agents whose
+ * previous attempt failed. The first read from a newly connected agent always goes ahead.
+ */
+@ExportedBean(defaultVisibility = 2)
+public final class ControllerLoad {
+
+    private static final Logger LOGGER = Logger.getLogger(ControllerLoad.class.getName());
+
+    static final ControllerLoad INSTANCE = new ControllerLoad();
+
+    static /* non-final for script console */ int MAX_QUEUE_LENGTH =
+            SystemProperties.getInteger(ControllerLoad.class.getName() + ".maxQueueLength", 1000);
+
+    static /* non-final for script console */ double MAX_LOAD_PER_PROCESSOR =
+            getDouble(ControllerLoad.class.getName() + ".maxLoadPerProcessor", 2.0);
+
+    private static final long SAMPLING_PERIOD = TimeUnit.SECONDS.toMillis(5);
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+    private final AtomicLong deferredScans = new AtomicLong();
+    private volatile long sampledAt;
+    private volatile boolean saturated;
+    private volatile int queueLength;
+    private volatile double loadAverage = -1;
+
+    private ControllerLoad() {}
+
+    /**
+     * Same as {@link SystemProperties#getInteger(String, Integer)}, for a {@code double}: a malformed value is logged
+     * and the default used instead.
+     */
+    static double getDouble(String name, double defaultValue) {
+        String value = SystemProperties.getString(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            LOGGER.log(
+                    Level.WARNING,
+                    "Ignoring invalid value {0} of {1}, using {2}",
+                    new Object[] {value, name, defaultValue});
+            return defaultValue;
+        }
+    }
+
+    static ControllerLoad get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return whether remote calls that can wait should be put off.
+     */
+    @Exported
+    public boolean isSaturated() {
+        if (System.currentTimeMillis() - sampledAt >= SAMPLING_PERIOD) {
+            sample();
+        }
+        return saturated;
+    }
+
+    private synchronized void sample() {
+        long now = System.currentTimeMillis();
+        if (now - sampledAt < SAMPLING_PERIOD) {
+            return;
+        }
+        int queueLength = Jenkins.get().getQueue().getApproximateItemsQuickly().size();
+        // negative where not available
+        double loadAverage = os.getSystemLoadAverage();
+        boolean saturated = isSaturated(queueLength, loadAverage, os.getAvailableProcessors());
+        if (saturated != this.saturated) {
+            LOGGER.log(
+                    Level.FINE,
+                    "Controller {0} saturated, with {1} queue item(s) and a load average of {2}",
+                    new Object[] {saturated ? "is" : "is no longer", queueLength, loadAverage});
+        }
+        this.queueLength = queueLength;
+        this.loadAverage = loadAverage;
+        this.saturated = saturated;
+        sampledAt = now;
+    }
+
+    static boolean isSaturated(int queueLength, double loadAverage, int processors) {
+        return queueLength > MAX_QUEUE_LENGTH || loadAverage > MAX_LOAD_PER_PROCESSOR * processors;
+    }
+
+    /**
+     * Makes the next call to {@link #isSaturated()} sample the load again, typically after a threshold was changed.
+     */
+    void resample() {
+        sampledAt = 0;
+    }
+
+    void deferredScan() {
+        deferredScans.incrementAndGet();
+    }
+
+    /**
+     * @return the length of the build queue when last sampled.
+     */
+    @Exported
+    public int getQueueLength() {
+        return queueLength;
+    }
+
+    /**
+     * @return the system load average when last sampled, or a negative value if not available.
+     */
+    @Exported
+    public double getLoadAverage() {
+        return loadAverage;
+    }
+
+    /**
+     * @return how many times the JDK inventory was put off because the controller was saturated.
+     */
+    @Exported
+    public long getDeferredScans() {
+        return deferredScans.get();
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.model.Node;
+import hudson.model.PeriodicWork;
+import hudson.model.Queue;
+import hudson.model.queue.CauseOfBlockage;
+import hudson.model.queue.QueueTaskDispatcher;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Support of {@link EnforcementMode#DRAIN}: an incompatible agent that is still running builds stops accepting new
+ * tasks, and is taken offline once idle.
+ *
+ * <p>The monitors mark such agents as draining in {@link AgentVersionStore}, {@link Dispatcher} keeps the queue away
+ * from them and {@link Reaper} checks every minute whether they are done. The draining state belongs to the connection
+ * of the agent: an agent that disconnects, and so also one that reconnects, is no longer draining.
+ */
+final class Drain {
+
+    private static final Logger LOGGER = Logger.getLogger(Drain.class.getName());
+
+    private Drain() {}
+
+    /**
+     * @return the draining state of the agent for the given kind of mismatch, to be shown in its column, or
+     *     {@code null} if it is not draining.
+     */
+    @CheckForNull
+    static String describe(@NonNull Computer c, @NonNull VersionHistory.Kind kind) {
+        if (!AgentVersionStore.get().isDraining(c.getName(), kind)) {
+            return null;
+        }
+        return Messages.Drain_State(c.countBusy());
+    }
+
+    @Extension
+    public static class Dispatcher extends QueueTaskDispatcher {
+
+        @Override
+        public CauseOfBlockage canTake(Node node, Queue.BuildableItem item) {
+            if (AgentVersionStore.get().isDraining(node.getNodeName())) {
+                return CauseOfBlockage.fromMessage(Messages._Drain_Blocked(node.getDisplayName()));
+            }
+            return null;
+        }
+    }
+
+    @Extension
+    public static class Reaper extends PeriodicWork {
+
+        @Override
+        public long getRecurrencePeriod() {
+            return TimeUnit.MINUTES.toMillis(1);
+        }
+
+        @Override
+        protected void doRun() {
+            AgentVersionStore store = AgentVersionStore.get();
+            for (String name : store.getDraining()) {
+                Computer c = Jenkins.get().getComputer(name);
+                if (c == null || c.getChannel() == null) {
+                    store.stopDraining(name, VersionHistory.Kind.JVM);
+                    store.stopDraining(name, VersionHistory.Kind.REMOTING);
+                } else if (c.isIdle()) {
+                    LOGGER.log(Level.FINE, "{0} is done draining", name);
+                    finish(c);
+                }
+            }
+        }
+
+        private static void finish(Computer c) {
+            AgentVersionStore store = AgentVersionStore.get();
+            if (store.isDraining(c.getName(), VersionHistory.Kind.JVM)) {
+                JVMVersionMonitor monitor = ComputerSet.getMonitors().get(JVMVersionMonitor.class);
+                if (monitor == null) {
+                    store.stopDraining(c.getName(), VersionHistory.Kind.JVM);
+                } else {
+                    JVMVersionMonitor.JvmVersionDescriptor descriptor =
+                            (JVMVersionMonitor.JvmVersionDescriptor) monitor.getDescriptor();
+                    descriptor.enforce(c, descriptor.get(c), monitor);
+                }
+            }
+            if (store.isDraining(c.getName(), VersionHistory.Kind.REMOTING)) {
+                VersionMonitor monitor = ComputerSet.getMonitors().get(VersionMonitor.class);
+                if (monitor == null) {
+                    store.stopDraining(c.getName(), VersionHistory.Kind.REMOTING);
+                } else {
+                    VersionMonitor.DescriptorImpl descriptor = (VersionMonitor.DescriptorImpl) monitor.getDescriptor();
+                    descriptor.enforce(c, descriptor.get(c), monitor);
+                }
+            }
+        }
+    }
+}
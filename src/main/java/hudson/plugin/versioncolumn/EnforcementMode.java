@@ -0,0 +1,54 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import hudson.util.ListBoxModel;
+
+/**
+ * What a monitor does to an agent found with an incompatible version.
+ */
+public enum EnforcementMode {
+    /** Take the agent offline right away. Running builds go on, but no new task is scheduled on it. */
+    OFFLINE(Messages.EnforcementMode_OFFLINE()),
+    /** Stop scheduling new tasks on the agent and take it offline once its running builds are over. */
+    DRAIN(Messages.EnforcementMode_DRAIN());
+
+    private final String description;
+
+    EnforcementMode(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    static ListBoxModel items() {
+        ListBoxModel items = new ListBoxModel();
+        for (EnforcementMode mode : values()) {
+            items.add(mode.getDescription(), mode.name());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Api;
+import hudson.model.Computer;
+import hudson.remoting.Launcher;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * What-if evaluation of a comparison mode and controller versions against the versions already known for every
+ * connected agent. Everything happens in memory: no agent is contacted.
+ *
+ * <p>As in the periodic checks, agents covered by a label policy are evaluated with the comparison mode of that
+ * policy rather than the simulated one, and the checks of a disabled monitor are skipped.
+ */
+@ExportedBean
+public class FleetSimulation {
+
+    private final JVMVersionComparator.ComparisonMode comparisonMode;
+    private final Runtime.Version controllerVersion;
+    private final String remotingVersion;
+    private final List<String> jvmMismatches = new ArrayList<>();
+    private final List<String> remotingMismatches = new ArrayList<>();
+    private final List<String> unknown = new ArrayList<>();
+    private final boolean jvmChecked;
+    private final boolean remotingChecked;
+    private final int total;
+    private final long durationMillis;
+
+    FleetSimulation(
+            @NonNull Collection<AgentVersionStore.Entry> entries,
+            @NonNull JVMVersionComparator.ComparisonMode comparisonMode,
+            @NonNull Runtime.Version controllerVersion,
+            @NonNull String remotingVersion) {
+        this(entries, name -> comparisonMode, true, true, comparisonMode, controllerVersion, remotingVersion);
+    }
+
+    /**
+     * @param modes the comparison mode to evaluate each agent with, by agent name: that of the label policy covering
+     *     it, or the simulated one.
+     * @param jvmChecked whether JVM versions are checked at all.
+     * @param remotingChecked whether remoting versions are checked at all.
+     */
+    FleetSimulation(
+            @NonNull Collection<AgentVersionStore.Entry> entries,
+            @NonNull Function<String, JVMVersionComparator.ComparisonMode> modes,
+            boolean jvmChecked,
+            boolean remotingChecked,
+            @NonNull JVMVersionComparator.ComparisonMode comparisonMode,
+            @NonNull Runtime.Version controllerVersion,
+            @NonNull String remotingVersion) {
+        long start = System.nanoTime();
+        this.comparisonMode = comparisonMode;
+        this.controllerVersion = controllerVersion;
+        this.remotingVersion = remotingVersion;
+        this.jvmChecked = jvmChecked;
+        this.remotingChecked = remotingChecked;
+        for (AgentVersionStore.Entry entry : entries) {
+            // classified as by the checks: an unknown JVM version is left alone, an unknown remoting one is not
+            if (jvmChecked) {
+                CompatibilityState state = JVMVersionMonitor.getState(
+                        controllerVersion, entry.getParsedJvmVersion(), modes.apply(entry.getName()));
+                if (state == CompatibilityState.UNKNOWN) {
+                    unknown.add(entry.getName());
+                } else if (state == CompatibilityState.MISMATCH) {
+                    jvmMismatches.add(entry.getName());
+                }
+            }
+            if (remotingChecked
+                    && VersionMonitor.getState(remotingVersion, entry.getRemotingVersion()) != CompatibilityState.OK) {
+                remotingMismatches.add(entry.getName());
+            }
+        }
+        Collections.sort(jvmMismatches);
+        Collections.sort(remotingMismatches);
+        Collections.sort(unknown);
+        this.total = entries.size();
+        this.durationMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Builds a simulation from request parameters, defaulting to the current settings. The label policies and the
+     * disabled state of the given monitors apply as they would to the periodic checks.
+     *
+     * @throws IllegalArgumentException if a parameter cannot be parsed.
+     */
+    static FleetSimulation of(
+            @CheckForNull String comparisonMode,
+            @CheckForNull String controllerVersion,
+            @CheckForNull String remotingVersion,
+            @NonNull JVMVersionComparator.ComparisonMode defaultMode,
+            @CheckForNull JVMVersionMonitor jvmMonitor,
+            @CheckForNull VersionMonitor remotingMonitor) {
+        JVMVersionComparator.ComparisonMode mode = comparisonMode == null || comparisonMode.isEmpty()
+                ? defaultMode
+                : JVMVersionComparator.ComparisonMode.valueOf(comparisonMode);
+        return new FleetSimulation(
+                AgentVersionStore.get().snapshot(),
+                jvmMonitor == null ? name -> mode : name -> {
+                    Computer c = Jenkins.get().getComputer(name);
+                    return c == null ? mode : jvmMonitor.getEffectiveComparisonMode(c, mode);
+                },
+                jvmMonitor == null || !jvmMonitor.isIgnored(),
+                remotingMonitor == null || !remotingMonitor.isIgnored(),
+                mode,
+                controllerVersion == null || controllerVersion.isEmpty()
+                        ? Runtime.version()
+                        : Runtime.Version.parse(controllerVersion),
+                remotingVersion == null || remotingVersion.isEmpty() ? Launcher.VERSION : remotingVersion);
+    }
+
+    public Api getApi() {
+        return new Api(this);
+    }
+
+    @Exported
+    public JVMVersionComparator.ComparisonMode getComparisonMode() {
+        return comparisonMode;
+    }
+
+    public JVMVersionComparator.ComparisonMode[] getComparisonModes() {
+        return JVMVersionComparator.ComparisonMode.values();
+    }
+
+    @Exported
+    public String getControllerVersion() {
+        return controllerVersion.toString();
+    }
+
+    @Exported
+    public String getRemotingVersion() {
+        return remotingVersion;
+    }
+
+    /**
+     * @return whether JVM versions were evaluated, which is not the case when {@link JVMVersionMonitor} is disabled.
+     */
+    @Exported
+    public boolean isJvmChecked() {
+        return jvmChecked;
+    }
+
+    /**
+     * @return whether remoting versions were evaluated, which is not the case when {@link VersionMonitor} is disabled.
+     */
+    @Exported
+    public boolean isRemotingChecked() {
+        return remotingChecked;
+    }
+
+    /**
+     * @return the number of connected agents the simulation ran against.
+     */
+    @Exported
+    public int getTotal() {
+        return total;
+    }
+
+    /**
+     * @return agents whose JVM would be considered incompatible.
+     */
+    @Exported
+    public List<String> getJvmMismatches() {
+        return Collections.unmodifiableList(jvmMismatches);
+    }
+
+    /**
+     * @return agents whose remoting version would differ from the controller one, or is not known yet.
+     */
+    @Exported
+    public List<String> getRemotingMismatches() {
+        return Collections.unmodifiableList(remotingMismatches);
+    }
+
+    /**
+     * @return agents whose JVM version is not known yet, and therefore could not be evaluated.
+     */
+    @Exported
+    public List<String> getUnknown() {
+        return Collections.unmodifiableList(unknown);
+    }
+
+    @Exported
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+}
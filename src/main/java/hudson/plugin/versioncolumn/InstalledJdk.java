@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * A JDK found on an agent by {@link JdkInventory}.
+ */
+@ExportedBean(defaultVisibility = 2)
+public final class InstalledJdk {
+
+    private final String home;
+    private final String version;
+    private final int featureVersion;
+
+    InstalledJdk(@NonNull String home, @NonNull String version) {
+        this.home = home;
+        this.version = version;
+        this.featureVersion = featureOf(version);
+    }
+
+    static List<InstalledJdk> of(Map<String, String> versionsByHome) {
+        List<InstalledJdk> jdks = new ArrayList<>(versionsByHome.size());
+        for (Map.Entry<String, String> e : versionsByHome.entrySet()) {
+            jdks.add(new InstalledJdk(e.getKey(), e.getValue()));
+        }
+        return List.copyOf(jdks);
+    }
+
+    /**
+     * @return the feature release number of a {@code JAVA_VERSION}, including the legacy {@code 1.8.0_392} form, or
+     *     0 if it cannot be told
+     */
+    static int featureOf(String version) {
+        String v = version.startsWith("1.") ? version.substring(2) : version;
+        int end = 0;
+        while (end < v.length() && end < 4 && Character.isDigit(v.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? 0 : Integer.parseInt(v.substring(0, end));
+    }
+
+    @Exported
+    public String getHome() {
+        return home;
+    }
+
+    @Exported
+    public String getVersion() {
+        return version;
+    }
+
+    @Exported
+    public int getFeatureVersion() {
+        return featureVersion;
+    }
+
+    /**
+     * @return the label given to agents having this JDK, such as {@code jdk-21}.
+     */
+    @CheckForNull
+    public String getLabel() {
+        return featureVersion > 0 ? "jdk-" + featureVersion : null;
+    }
+}
@@ -23,6 +23,7 @@
  */
 package hudson.plugin.versioncolumn;
 
+import hudson.util.ListBoxModel;
 import java.util.List;
 
 /**
@@ -87,5 +88,13 @@ class JVMVersionComparator {
         public String getDescription() {
             return description;
         }
+
+        static ListBoxModel items() {
+            ListBoxModel items = new ListBoxModel();
+            for (ComparisonMode goal : values()) {
+                items.add(goal.getDescription(), goal.name());
+            }
+            return items;
+        }
     }
 }
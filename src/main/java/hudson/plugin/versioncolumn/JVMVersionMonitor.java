@@ -23,34 +23,65 @@
  */
 package hudson.plugin.versioncolumn;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import hudson.Extension;
 import hudson.Util;
 import hudson.model.Computer;
 import hudson.model.ComputerSet;
+import hudson.model.Node;
 import hudson.node_monitors.AbstractAsyncNodeMonitorDescriptor;
 import hudson.node_monitors.MonitorOfflineCause;
 import hudson.node_monitors.NodeMonitor;
 import hudson.remoting.Callable;
+import hudson.remoting.VirtualChannel;
+import hudson.util.FormValidation;
 import hudson.util.ListBoxModel;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import jenkins.security.MasterToSlaveCallable;
+import jenkins.model.Jenkins;
 import org.jenkinsci.Symbol;
+import org.jvnet.localizer.LocaleProvider;
 import org.kohsuke.stapler.DataBoundConstructor;
 import org.kohsuke.stapler.DataBoundSetter;
+import org.kohsuke.stapler.QueryParameter;
 import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.verb.POST;
 
 public class JVMVersionMonitor extends NodeMonitor {
 
     private static final Runtime.Version CONTROLLER_VERSION = Runtime.version();
     private static final Logger LOGGER = Logger.getLogger(JVMVersionMonitor.class.getName());
+    private static final long POLL_INTERVAL_MILLIS = 100;
+    private static final AtomicInteger POLICY_GENERATIONS = new AtomicInteger();
 
     private JVMVersionComparator.ComparisonMode comparisonMode =
             JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE;
     private transient Boolean disconnect;
+    private boolean clientSideRendering;
+    private int offlineThreshold = 1;
+    private int onlineThreshold = 1;
+    private List<LabelPolicy> labelPolicies = new ArrayList<>();
+    private transient int policyGeneration = POLICY_GENERATIONS.incrementAndGet();
+    private String targetJvmVersion;
+    private transient Runtime.Version parsedTargetJvmVersion;
+    private EnforcementMode enforcementMode = EnforcementMode.OFFLINE;
 
     @DataBoundConstructor
     public JVMVersionMonitor(JVMVersionComparator.ComparisonMode comparisonMode) {
@@ -74,11 +105,25 @@ public class JVMVersionMonitor extends NodeMonitor {
         if (disconnect != null) {
             this.setIgnored(!disconnect);
         }
+        if (labelPolicies == null) {
+            labelPolicies = new ArrayList<>();
+        }
+        policyGeneration = POLICY_GENERATIONS.incrementAndGet();
+        setTargetJvmVersion(targetJvmVersion);
         return this;
     }
 
     @SuppressWarnings("unused") // jelly
     public String toHtml(String version) {
+        return toHtml(version, comparisonMode);
+    }
+
+    @SuppressWarnings("unused") // jelly
+    public String toHtml(Computer c, String version) {
+        return toHtml(version, getEffectiveComparisonMode(c));
+    }
+
+    private static String toHtml(String version, JVMVersionComparator.ComparisonMode comparisonMode) {
         if (version == null || version.equals("N/A")) {
             return "N/A";
         }
@@ -90,86 +135,536 @@ public class JVMVersionMonitor extends NodeMonitor {
         return version;
     }
 
+    /**
+     * Compatibility of the given agent version with the controller one, without rendering anything.
+     */
+    public CompatibilityState getState(String version) {
+        return getState(version, comparisonMode);
+    }
+
+    /**
+     * Compatibility of the version of the given agent with the controller one, under the policy applying to it.
+     */
+    public CompatibilityState getState(Computer c, String version) {
+        return getState(version, getEffectiveComparisonMode(c));
+    }
+
+    private static CompatibilityState getState(String version, JVMVersionComparator.ComparisonMode comparisonMode) {
+        if (version == null || version.equals("N/A")) {
+            return CompatibilityState.UNKNOWN;
+        }
+        Runtime.Version agentVersion;
+        try {
+            agentVersion = Runtime.Version.parse(version);
+        } catch (IllegalArgumentException e) {
+            return CompatibilityState.UNKNOWN;
+        }
+        return getState(CONTROLLER_VERSION, agentVersion, comparisonMode);
+    }
+
+    /**
+     * Compatibility of an agent version with the given controller one, an unknown or unparseable agent version being
+     * neither compatible nor incompatible.
+     */
+    static CompatibilityState getState(
+            @NonNull Runtime.Version controllerVersion,
+            @CheckForNull Runtime.Version agentVersion,
+            @NonNull JVMVersionComparator.ComparisonMode comparisonMode) {
+        if (agentVersion == null) {
+            return CompatibilityState.UNKNOWN;
+        }
+        return new JVMVersionComparator(controllerVersion, agentVersion, comparisonMode).isCompatible()
+                ? CompatibilityState.OK
+                : CompatibilityState.MISMATCH;
+    }
+
     public JVMVersionComparator.ComparisonMode getComparisonMode() {
         return comparisonMode;
     }
 
+    public List<LabelPolicy> getLabelPolicies() {
+        return Collections.unmodifiableList(labelPolicies);
+    }
+
+    /**
+     * Comparison modes applying to agents matching a label expression instead of {@link #getComparisonMode()}. The
+     * first matching policy wins.
+     */
+    @DataBoundSetter
+    public void setLabelPolicies(List<LabelPolicy> labelPolicies) {
+        this.labelPolicies = labelPolicies == null ? new ArrayList<>() : new ArrayList<>(labelPolicies);
+        this.policyGeneration = POLICY_GENERATIONS.incrementAndGet();
+    }
+
+    /**
+     * @return the comparison mode of the first label policy matching the agent, or the global one. The result is
+     *     cached per agent until its labels or the policies change, so that the periodic checks do not evaluate
+     *     label expressions.
+     */
+    public JVMVersionComparator.ComparisonMode getEffectiveComparisonMode(Computer c) {
+        return getEffectiveComparisonMode(c, comparisonMode);
+    }
+
+    /**
+     * Same as {@link #getEffectiveComparisonMode(Computer)}, with another comparison mode for the agents that no
+     * label policy covers.
+     */
+    @NonNull
+    JVMVersionComparator.ComparisonMode getEffectiveComparisonMode(
+            @NonNull Computer c, @NonNull JVMVersionComparator.ComparisonMode defaultMode) {
+        if (labelPolicies.isEmpty()) {
+            return defaultMode;
+        }
+        JVMVersionComparator.ComparisonMode mode =
+                AgentVersionStore.get().resolvePolicy(c.getName(), policyGeneration, () -> {
+                    Node node = c.getNode();
+                    return node == null ? null : getPolicyComparisonMode(node);
+                });
+        return mode == null ? defaultMode : mode;
+    }
+
+    /**
+     * @return the comparison mode of the first label policy matching the node, or {@code null} if none does.
+     */
+    @CheckForNull
+    JVMVersionComparator.ComparisonMode getPolicyComparisonMode(@NonNull Node node) {
+        for (LabelPolicy policy : labelPolicies) {
+            if (policy.matches(node)) {
+                return policy.getComparisonMode();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return how many consecutive mismatches it takes to take an agent offline.
+     */
+    public int getOfflineThreshold() {
+        return Math.max(1, offlineThreshold);
+    }
+
+    @DataBoundSetter
+    public void setOfflineThreshold(int offlineThreshold) {
+        this.offlineThreshold = Math.max(1, offlineThreshold);
+    }
+
+    /**
+     * @return how many consecutive matches it takes to bring an agent taken offline by this monitor back online.
+     */
+    public int getOnlineThreshold() {
+        return Math.max(1, onlineThreshold);
+    }
+
+    @DataBoundSetter
+    public void setOnlineThreshold(int onlineThreshold) {
+        this.onlineThreshold = Math.max(1, onlineThreshold);
+    }
+
+    public boolean isClientSideRendering() {
+        return clientSideRendering;
+    }
+
+    /**
+     * When set, the column is filled in the browser from {@link VersionColumnAction#doData} instead of being
+     * rendered on the controller for each row.
+     */
+    @DataBoundSetter
+    public void setClientSideRendering(boolean clientSideRendering) {
+        this.clientSideRendering = clientSideRendering;
+    }
+
+    public EnforcementMode getEnforcementMode() {
+        return enforcementMode == null ? EnforcementMode.OFFLINE : enforcementMode;
+    }
+
+    @DataBoundSetter
+    public void setEnforcementMode(EnforcementMode enforcementMode) {
+        this.enforcementMode = enforcementMode;
+    }
+
+    /**
+     * @return how the agent is draining before being taken offline because of its JVM version, if it is.
+     */
+    @CheckForNull
+    public String getDrainState(Computer c) {
+        return Drain.describe(c, VersionHistory.Kind.JVM);
+    }
+
+    public String getTargetJvmVersion() {
+        return targetJvmVersion;
+    }
+
+    /**
+     * Controller JVM version to count agents against ahead of an upgrade, see {@link Readiness}. It does not affect
+     * which agents are taken offline.
+     */
+    @DataBoundSetter
+    public void setTargetJvmVersion(String targetJvmVersion) {
+        this.targetJvmVersion = Util.fixEmptyAndTrim(targetJvmVersion);
+        Runtime.Version parsed = null;
+        if (this.targetJvmVersion != null) {
+            try {
+                parsed = Runtime.Version.parse(this.targetJvmVersion);
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Ignoring invalid target JVM version: " + this.targetJvmVersion, e);
+            }
+        }
+        this.parsedTargetJvmVersion = parsed;
+        AgentVersionStore.get().retarget(VersionHistory.Kind.JVM, parsed == null ? null : this.targetJvmVersion);
+    }
+
+    @Override
+    public String getColumnCaption() {
+        return Readiness.JVM.caption(MonitorCycle.JVM.caption(super.getColumnCaption()));
+    }
+
     @Extension
     @Symbol("jvmVersion")
     public static class JvmVersionDescriptor extends AbstractAsyncNodeMonitorDescriptor<String> {
 
+        private final transient MismatchLog mismatchLog = new MismatchLog(LOGGER, "JVM");
+
+        /** Localized message of {@link JVMMismatchCause}, by locale. */
+        private final transient Map<Locale, String> offlineCauses = new ConcurrentHashMap<>();
+
+        /**
+         * Unlike {@link #monitorDetailed()}, each agent is classified and its version published as soon as its own
+         * probe completes, so that a slow agent does not hold back the others until the end of the cycle. Agents are
+         * gone through in {@link ProbeOrder}, and a cycle is not started while the previous one is still running, see
+         * {@link MonitorCycle}.
+         */
         @Override
         protected Map<Computer, String> monitor() throws InterruptedException {
-            Result<String> base = monitorDetailed();
-            Map<Computer, String> data = base.getMonitoringData();
+            if (!MonitorCycle.JVM.start()) {
+                return MonitorCycle.previous(this);
+            }
+            Map<Computer, String> data = null;
+            try {
+                data = monitorAll(Jenkins.get().getComputers(), getMonitoringTimeOut());
+                return data;
+            } finally {
+                MonitorCycle.JVM.end(data == null ? 0 : data.size());
+            }
+        }
+
+        /**
+         * Probes the given agents in parallel, giving up on the ones that did not answer within the timeout.
+         */
+        Map<Computer, String> monitorAll(Computer[] computers, long timeoutMillis) throws InterruptedException {
             JVMVersionMonitor monitor =
                     (JVMVersionMonitor) ComputerSet.getMonitors().get(this);
-            for (Map.Entry<Computer, String> e : data.entrySet()) {
-                Computer computer = e.getKey();
-                String version = e.getValue();
-                if (base.getSkipped().contains(computer)) {
-                    assert version == null;
+            Map<Computer, String> data = new HashMap<>();
+            Map<Computer, Future<String[]>> pending = new LinkedHashMap<>();
+            Map<Computer, VersionEvents.Probe> events = new HashMap<>();
+            // probes of new channels are sent first, then agents are classified from what is already known
+            for (Computer computer : ProbeOrder.sort(computers, VersionHistory.Kind.JVM, JVMMismatchCause.class)) {
+                data.put(computer, null);
+                VirtualChannel channel = computer.getChannel();
+                if (channel == null) {
+                    continue;
+                }
+                String cached = AgentVersionStore.get().getJvmVersion(computer, channel);
+                if (cached != null) {
+                    data.put(computer, cached);
+                    markNodeOfflineOrOnline(computer, cached, monitor);
                     continue;
                 }
-                if (version == null) {
-                    e.setValue(version = get(computer));
+                if (AgentVersionStore.get().isRetry(computer, channel, VersionHistory.Kind.JVM)
+                        && ControllerLoad.get().isSaturated()) {
+                    MonitorMetrics.JVM.deferredProbe();
+                    data.put(computer, get(computer));
+                    continue;
+                }
+                VersionEvents.Probe event = VersionEvents.startProbe();
+                MonitorCycle.JVM.probed();
+                try {
+                    pending.put(computer, channel.callAsync(new VersionProbe()));
+                    if (event != null) {
+                        events.put(computer, event);
+                    }
+                } catch (RuntimeException | IOException x) {
+                    AgentVersionStore.get().probeFailed(computer, channel, VersionHistory.Kind.JVM);
+                    VersionEvents.endProbe(
+                            event,
+                            computer,
+                            VersionProbe.class,
+                            VersionEvents.SOURCE_CYCLE,
+                            VersionEvents.OUTCOME_FAILED);
+                    error(computer, x);
+                }
+            }
+
+            try {
+                collectAll(pending, events, data, monitor, timeoutMillis);
+            } finally {
+                // nobody is waiting for these anymore, typically because the cycle was interrupted
+                for (Future<String[]> future : pending.values()) {
+                    future.cancel(true);
                 }
-                markNodeOfflineOrOnline(computer, version, monitor);
             }
+            mismatchLog.flush();
             return data;
         }
 
-        private void markNodeOfflineOrOnline(Computer c, String agentVersionStr, JVMVersionMonitor monitor) {
+        private void collectAll(
+                Map<Computer, Future<String[]>> pending,
+                Map<Computer, VersionEvents.Probe> events,
+                Map<Computer, String> data,
+                JVMVersionMonitor monitor,
+                long timeoutMillis)
+                throws InterruptedException {
+            long end = System.currentTimeMillis() + timeoutMillis;
+            while (!pending.isEmpty()) {
+                boolean progress = false;
+                for (Iterator<Map.Entry<Computer, Future<String[]>>> it =
+                                pending.entrySet().iterator();
+                        it.hasNext(); ) {
+                    Map.Entry<Computer, Future<String[]>> e = it.next();
+                    if (e.getValue().isDone()) {
+                        it.remove();
+                        progress = true;
+                        collect(e.getKey(), e.getValue(), events.get(e.getKey()), data, monitor);
+                    }
+                }
+                long remaining = end - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    for (Iterator<Map.Entry<Computer, Future<String[]>>> it =
+                                    pending.entrySet().iterator();
+                            it.hasNext(); ) {
+                        Map.Entry<Computer, Future<String[]>> e = it.next();
+                        Computer computer = e.getKey();
+                        it.remove();
+                        e.getValue().cancel(true);
+                        VersionEvents.endProbe(
+                                events.get(computer),
+                                computer,
+                                VersionProbe.class,
+                                VersionEvents.SOURCE_CYCLE,
+                                VersionEvents.OUTCOME_TIMEOUT);
+                        failed(computer);
+                        // a slow agent is not an error of the plugin, its stack trace would only be noise
+                        LOGGER.warning(() -> "No answer from " + computer.getDisplayName() + " for " + getDisplayName()
+                                + " within " + timeoutMillis + "ms, keeping its last known version");
+                        String version = get(computer);
+                        data.put(computer, version);
+                        markNodeOfflineOrOnline(computer, version, monitor);
+                    }
+                    break;
+                }
+                if (!progress) {
+                    // wait on the oldest probe, but wake up regularly to pick up the ones that completed meanwhile
+                    try {
+                        pending.values()
+                                .iterator()
+                                .next()
+                                .get(Math.min(remaining, POLL_INTERVAL_MILLIS), TimeUnit.MILLISECONDS);
+                    } catch (TimeoutException | ExecutionException | CancellationException x) {
+                        // handled on the next pass
+                    }
+                }
+            }
+        }
+
+        private void collect(
+                Computer computer,
+                Future<String[]> future,
+                @CheckForNull VersionEvents.Probe event,
+                Map<Computer, String> data,
+                JVMVersionMonitor monitor)
+                throws InterruptedException {
+            String version = null;
+            String outcome = VersionEvents.OUTCOME_FAILED;
+            try {
+                String[] versions = future.get();
+                outcome = VersionEvents.OUTCOME_OK;
+                version = VersionKeys.intern(versions[VersionProbe.JVM]);
+                String remotingVersion = VersionKeys.intern(versions[VersionProbe.REMOTING]);
+                VirtualChannel channel = computer.getChannel();
+                if (channel != null) {
+                    AgentVersionStore.get().recordJvmVersion(computer, channel, version);
+                    AgentVersionStore.get().recordRemotingVersion(computer, channel, remotingVersion);
+                }
+            } catch (ExecutionException | RuntimeException x) {
+                failed(computer);
+                error(computer, x);
+            } finally {
+                VersionEvents.endProbe(event, computer, VersionProbe.class, VersionEvents.SOURCE_CYCLE, outcome);
+            }
+            if (version == null) {
+                version = get(computer);
+            }
+            data.put(computer, version);
+            markNodeOfflineOrOnline(computer, version, monitor);
+        }
+
+        private static void failed(Computer computer) {
+            VirtualChannel channel = computer.getChannel();
+            if (channel != null) {
+                AgentVersionStore.get().probeFailed(computer, channel, VersionHistory.Kind.JVM);
+            }
+        }
+
+        private void error(Computer computer, Throwable x) {
+            LOGGER.log(Level.WARNING, "Failed to monitor " + computer.getDisplayName() + " for " + getDisplayName(), x);
+        }
+
+        /**
+         * Prefers the version read from the current channel, which is known as soon as the probe returns, over the
+         * data of the last completed cycle.
+         */
+        @Override
+        public String get(Computer c) {
+            String version = AgentVersionStore.get().getJvmVersion(c, c.getChannel());
+            return version != null ? version : super.get(c);
+        }
+
+        void markNodeOfflineOrOnline(Computer c, String agentVersionStr, JVMVersionMonitor monitor) {
             if (agentVersionStr == null) {
                 return;
             }
-            Runtime.Version agentVersion;
-            try {
-                agentVersion = Runtime.Version.parse(agentVersionStr);
-            } catch (IllegalArgumentException e) {
-                LOGGER.log(Level.WARNING, "Failed to parse agent version: " + agentVersionStr, e);
+            Runtime.Version agentVersion = null;
+            if (!mismatchLog.isUnparseable(agentVersionStr)) {
+                try {
+                    agentVersion = Runtime.Version.parse(agentVersionStr);
+                } catch (IllegalArgumentException e) {
+                    mismatchLog.parseFailed(agentVersionStr, e);
+                }
+            }
+            if (agentVersion == null) {
+                AgentVersionStore.get()
+                        .recordState(
+                                c.getName(), VersionHistory.Kind.JVM, agentVersionStr, CompatibilityState.UNKNOWN);
+                AgentVersionStore.get().recordReadiness(c.getName(), VersionHistory.Kind.JVM, Readiness.NONE);
+                mismatchLog.tally(c, agentVersionStr, CompatibilityState.UNKNOWN);
                 return;
             }
+            JVMVersionComparator.ComparisonMode mode = monitor.getEffectiveComparisonMode(c);
+            Runtime.Version target = monitor.parsedTargetJvmVersion;
+            if (target != null) {
+                AgentVersionStore.get()
+                        .recordReadiness(
+                                c.getName(),
+                                VersionHistory.Kind.JVM,
+                                new JVMVersionComparator(target, agentVersion, mode).isCompatible()
+                                        ? Readiness.READY
+                                        : Readiness.NOT_READY);
+            }
             final JVMVersionComparator jvmVersionComparator =
-                    new JVMVersionComparator(CONTROLLER_VERSION, agentVersion, monitor.comparisonMode);
+                    new JVMVersionComparator(CONTROLLER_VERSION, agentVersion, mode);
+            CompatibilityState state =
+                    jvmVersionComparator.isCompatible() ? CompatibilityState.OK : CompatibilityState.MISMATCH;
+            AgentVersionStore.get().recordState(c.getName(), VersionHistory.Kind.JVM, agentVersionStr, state);
+            mismatchLog.tally(c, agentVersionStr, state);
+            int streak = AgentVersionStore.get()
+                    .observe(c.getName(), VersionHistory.Kind.JVM, jvmVersionComparator.isCompatible());
 
             if (jvmVersionComparator.isNotCompatible()) {
                 if (!isIgnored()) {
-                    LOGGER.warning(
-                            Messages.JVMVersionMonitor_MarkedOffline(c.getName(), CONTROLLER_VERSION, agentVersionStr));
-                    markOffline(c, new JVMMismatchCause(Messages.JVMVersionMonitor_OfflineCause()));
+                    if (streak < monitor.getOfflineThreshold()) {
+                        if (!(c.isOffline() && c.getOfflineCause() instanceof JVMMismatchCause)) {
+                            MonitorMetrics.JVM.suppressedOffline();
+                            LOGGER.fine(() -> "Keeping " + c.getName() + " online after " + streak
+                                    + " consecutive JVM version mismatch(es)");
+                        }
+                        return;
+                    }
+                    enforce(c, agentVersionStr, monitor);
                 } else {
                     LOGGER.finer("Version incompatibility detected, but keeping the agent '"
                             + c.getName()
                             + "' online per the node monitor configuration");
+                    AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.JVM);
                     if (c.isOffline() && c.getOfflineCause() instanceof JVMMismatchCause) {
                         c.setTemporarilyOffline(false, null);
+                        VersionEvents.enforcement(
+                                c, VersionHistory.Kind.JVM, VersionEvents.ACTION_ONLINE, agentVersionStr);
                     }
                 }
             } else {
+                AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.JVM);
                 if (c.isOffline() && c.getOfflineCause() instanceof JVMMismatchCause) {
+                    if (streak < monitor.getOnlineThreshold()) {
+                        MonitorMetrics.JVM.suppressedOnline();
+                        LOGGER.fine(() -> "Keeping " + c.getName() + " offline after " + streak
+                                + " consecutive JVM version match(es)");
+                        return;
+                    }
                     c.setTemporarilyOffline(false, null);
+                    VersionEvents.enforcement(c, VersionHistory.Kind.JVM, VersionEvents.ACTION_ONLINE, agentVersionStr);
                 }
             }
         }
 
+        /**
+         * Stops an incompatible agent from taking work, right away or once its running builds are over depending on
+         * {@link JVMVersionMonitor#getEnforcementMode()}.
+         */
+        void enforce(Computer c, String agentVersionStr, JVMVersionMonitor monitor) {
+            if (isIgnored()) {
+                AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.JVM);
+                return;
+            }
+            if (monitor.getEnforcementMode() == EnforcementMode.DRAIN && !c.isOffline() && !c.isIdle()) {
+                AgentVersionStore store = AgentVersionStore.get();
+                if (store.startDraining(c.getName(), VersionHistory.Kind.JVM)) {
+                    LOGGER.warning(Messages.JVMVersionMonitor_Draining(
+                            c.getName(), CONTROLLER_VERSION, agentVersionStr, c.countBusy()));
+                    VersionEvents.enforcement(c, VersionHistory.Kind.JVM, VersionEvents.ACTION_DRAIN, agentVersionStr);
+                }
+                // without a known channel there is nothing to track the draining with
+                if (store.isDraining(c.getName(), VersionHistory.Kind.JVM)) {
+                    return;
+                }
+            }
+            AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.JVM);
+            if (c.getTemporaryOfflineCause() != null) {
+                // already offline, for this reason or another one, which markOffline would leave as is
+                return;
+            }
+            String message = offlineCauses.computeIfAbsent(
+                    LocaleProvider.getLocale(), locale -> Messages._JVMVersionMonitor_OfflineCause().toString(locale));
+            if (markOffline(c, new JVMMismatchCause(message))) {
+                // only when the agent actually changes state, the rest goes to the cycle summary
+                LOGGER.warning(
+                        Messages.JVMVersionMonitor_MarkedOffline(c.getName(), CONTROLLER_VERSION, agentVersionStr));
+                VersionEvents.enforcement(c, VersionHistory.Kind.JVM, VersionEvents.ACTION_OFFLINE, agentVersionStr);
+            }
+        }
+
         @Override
         @NonNull
         public String getDisplayName() {
             return Messages.JVMVersionMonitor_DisplayName();
         }
 
+        public ListBoxModel doFillEnforcementModeItems() {
+            return EnforcementMode.items();
+        }
+
+        /**
+         * Not used: {@link #monitor()} reads both versions at once with a {@link VersionProbe}, and only when they
+         * were not already read from the channel of the agent.
+         */
         @Override
         protected Callable<String, IOException> createCallable(Computer c) {
-            return new JavaVersion();
+            return null;
         }
 
         public ListBoxModel doFillComparisonModeItems() {
-            ListBoxModel items = new ListBoxModel();
-            for (JVMVersionComparator.ComparisonMode goal : JVMVersionComparator.ComparisonMode.values()) {
-                items.add(goal.getDescription(), goal.name());
+            return JVMVersionComparator.ComparisonMode.items();
+        }
+
+        @POST
+        public FormValidation doCheckTargetJvmVersion(@QueryParameter String value) {
+            if (!Jenkins.get().hasPermission(Jenkins.MANAGE) || Util.fixEmptyAndTrim(value) == null) {
+                return FormValidation.ok();
+            }
+            try {
+                Runtime.Version.parse(value.trim());
+                return FormValidation.ok();
+            } catch (IllegalArgumentException e) {
+                return FormValidation.error(e.getMessage());
             }
-            return items;
         }
     }
 
@@ -193,11 +688,4 @@ public class JVMVersionMonitor extends NodeMonitor {
             return JVMVersionMonitor.class;
         }
     }
-
-    private static class JavaVersion extends MasterToSlaveCallable<String, IOException> {
-        @Override
-        public String call() {
-            return Runtime.version().toString();
-        }
-    }
 }
@@ -0,0 +1,177 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.AsyncPeriodicWork;
+import hudson.model.Computer;
+import hudson.model.Label;
+import hudson.model.LabelFinder;
+import hudson.model.Node;
+import hudson.model.TaskListener;
+import hudson.model.labels.LabelAtom;
+import hudson.remoting.VirtualChannel;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+
+/**
+ * Finds out in the background which JDKs are installed on each agent, so that they can be used from labels and the
+ * remote API instead of being downloaded again by a tool installer.
+ *
+ * <p>Agents are scanned one at a time, once per connection and then again every
+ * {@code hudson.plugin.versioncolumn.JdkInventory.refreshPeriod} milliseconds (a day by default). Setting
+ * {@code hudson.plugin.versioncolumn.JdkInventory.disabled} turns the scan off.
+ */
+@Extension
+public class JdkInventory extends AsyncPeriodicWork {
+
+    private static final Logger LOGGER = Logger.getLogger(JdkInventory.class.getName());
+
+    static /* non-final for script console */ boolean DISABLED =
+            SystemProperties.getBoolean(JdkInventory.class.getName() + ".disabled");
+
+    static final long RECURRENCE_PERIOD = SystemProperties.getLong(
+            JdkInventory.class.getName() + ".recurrencePeriod", TimeUnit.MINUTES.toMillis(15));
+
+    static final long REFRESH_PERIOD =
+            SystemProperties.getLong(JdkInventory.class.getName() + ".refreshPeriod", TimeUnit.DAYS.toMillis(1));
+
+    static /* non-final for script console */ long TIMEOUT =
+            SystemProperties.getLong(JdkInventory.class.getName() + ".timeout", TimeUnit.MINUTES.toMillis(1));
+
+    public JdkInventory() {
+        super("JDK inventory");
+    }
+
+    @Override
+    public long getRecurrencePeriod() {
+        return RECURRENCE_PERIOD;
+    }
+
+    @Override
+    protected Level getNormalLoggingLevel() {
+        return Level.FINE;
+    }
+
+    @Override
+    protected void execute(TaskListener listener) throws InterruptedException {
+        if (DISABLED) {
+            return;
+        }
+        if (ControllerLoad.get().isSaturated()) {
+            ControllerLoad.get().deferredScan();
+            LOGGER.fine("Putting off the JDK inventory while the controller is saturated");
+            return;
+        }
+        long since = System.currentTimeMillis() - REFRESH_PERIOD;
+        for (Computer c : Jenkins.get().getComputers()) {
+            VirtualChannel channel = c.getChannel();
+            Node node = c.getNode();
+            if (channel == null || node == null || !AgentVersionStore.get().isJdkScanDue(c, channel, since)) {
+                continue;
+            }
+            try {
+                scan(c, node, channel);
+            } catch (IOException | ExecutionException | TimeoutException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Failed to list the JDKs of " + c.getName(), e);
+            }
+        }
+    }
+
+    static void scan(Computer c, Node node, VirtualChannel channel)
+            throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        FilePath root = node.getRootPath();
+        String toolsDir = root == null ? null : root.child("tools").child("hudson.model.JDK").getRemote();
+        Future<TreeMap<String, String>> scan = channel.callAsync(new JdkScan(toolsDir));
+        List<InstalledJdk> jdks;
+        try {
+            jdks = InstalledJdk.of(scan.get(TIMEOUT, TimeUnit.MILLISECONDS));
+        } finally {
+            // nobody is waiting for it anymore on a timeout or an interruption
+            scan.cancel(true);
+        }
+        List<InstalledJdk> previous = AgentVersionStore.get().recordJdks(c, channel, jdks);
+        Set<String> labels = labelsOf(jdks);
+        Set<String> previousLabels = previous == null ? Set.of() : labelsOf(previous);
+        if (!labels.equals(previousLabels)) {
+            Set<String> changed = new HashSet<>(labels);
+            changed.addAll(previousLabels);
+            for (String label : changed) {
+                // membership of labels is cached
+                Label atom = Jenkins.get().getLabelAtom(label);
+                if (atom != null) {
+                    atom.reset();
+                }
+            }
+            // so is the label policy applying to the agent
+            AgentVersionStore.get().invalidatePolicy(c.getName());
+        }
+    }
+
+    private static Set<String> labelsOf(List<InstalledJdk> jdks) {
+        Set<String> labels = new HashSet<>();
+        for (InstalledJdk jdk : jdks) {
+            String label = jdk.getLabel();
+            if (label != null) {
+                labels.add(label);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Gives each connected agent a {@code jdk-<feature version>} label for every JDK found on it.
+     */
+    @Extension
+    public static class JdkLabelFinder extends LabelFinder {
+
+        @NonNull
+        @Override
+        public Collection<LabelAtom> findLabels(@NonNull Node node) {
+            List<InstalledJdk> jdks = AgentVersionStore.get().getJdks(node.getNodeName());
+            if (jdks.isEmpty()) {
+                return Set.of();
+            }
+            Set<LabelAtom> labels = new HashSet<>();
+            for (String label : labelsOf(jdks)) {
+                labels.add(Jenkins.get().getLabelAtom(label));
+            }
+            return labels;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Looks for JDKs in the usual installation directories of an agent, and in its tool installation directory.
+ *
+ * <p>A directory is taken for a JDK when it has a {@code release} file declaring a {@code JAVA_VERSION}, which is
+ * the case of every JDK since 9 and of most distributions of 8. Only a few directories are listed, and no process
+ * is started.
+ */
+final class JdkScan extends MasterToSlaveCallable<TreeMap<String, String>, IOException> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Directories whose children are usually JDKs. */
+    private static final String[] PARENTS = {
+        "/usr/lib/jvm",
+        "/usr/java",
+        "/usr/local/java",
+        "/opt/java",
+        "/opt",
+        "/Library/Java/JavaVirtualMachines",
+        "C:\\Program Files\\Java",
+        "C:\\Program Files\\Eclipse Adoptium",
+        "C:\\Program Files\\Microsoft",
+        "C:\\Program Files\\Amazon Corretto",
+        "C:\\Program Files\\Zulu",
+    };
+
+    private final String toolsDir;
+
+    /**
+     * @param toolsDir where the JDK tool installers of Jenkins unpack on this agent, if known
+     */
+    JdkScan(String toolsDir) {
+        this.toolsDir = toolsDir;
+    }
+
+    /**
+     * @return the {@code JAVA_VERSION} of each JDK found, by canonical home directory
+     */
+    @Override
+    public TreeMap<String, String> call() throws IOException {
+        List<File> candidates = new ArrayList<>();
+        candidates.add(new File(System.getProperty("java.home")));
+        String javaHome = System.getenv("JAVA_HOME");
+        if (javaHome != null) {
+            candidates.add(new File(javaHome));
+        }
+        List<String> parents = new ArrayList<>(List.of(PARENTS));
+        String userHome = System.getProperty("user.home");
+        if (userHome != null) {
+            parents.add(String.join(File.separator, userHome, ".sdkman", "candidates", "java"));
+            parents.add(String.join(File.separator, userHome, ".jdks"));
+        }
+        if (toolsDir != null) {
+            parents.add(toolsDir);
+        }
+        for (String parent : parents) {
+            File[] children = new File(parent).listFiles();
+            if (children != null) {
+                for (File child : children) {
+                    candidates.add(child);
+                    // macOS bundles
+                    candidates.add(new File(child, "Contents" + File.separator + "Home"));
+                }
+            }
+        }
+
+        TreeMap<String, String> found = new TreeMap<>();
+        for (File home : candidates) {
+            String version = readVersion(new File(home, "release"));
+            if (version != null) {
+                found.put(home.getCanonicalPath(), version);
+            }
+        }
+        return found;
+    }
+
+    static String readVersion(File release) {
+        if (!release.isFile()) {
+            return null;
+        }
+        try {
+            for (String line : Files.readAllLines(release.toPath(), StandardCharsets.ISO_8859_1)) {
+                if (line.startsWith("JAVA_VERSION=")) {
+                    String version = line.substring("JAVA_VERSION=".length()).trim();
+                    if (version.length() >= 2 && version.startsWith("\"") && version.endsWith("\"")) {
+                        version = version.substring(1, version.length() - 1);
+                    }
+                    return version.isEmpty() ? null : version;
+                }
+            }
+        } catch (IOException e) {
+            // unreadable, not a JDK we can use
+        }
+        return null;
+    }
+}
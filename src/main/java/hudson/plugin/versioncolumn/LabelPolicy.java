@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.util.FormValidation;
+import hudson.util.ListBoxModel;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.verb.POST;
+
+/**
+ * Comparison mode applying to the agents matching a label expression, in place of the global one of
+ * {@link JVMVersionMonitor}.
+ */
+public class LabelPolicy extends AbstractDescribableImpl<LabelPolicy> {
+
+    private static final Logger LOGGER = Logger.getLogger(LabelPolicy.class.getName());
+
+    private final String labelExpression;
+    private final JVMVersionComparator.ComparisonMode comparisonMode;
+    private transient Label label;
+
+    @DataBoundConstructor
+    public LabelPolicy(String labelExpression, JVMVersionComparator.ComparisonMode comparisonMode) {
+        this.labelExpression = Util.fixEmptyAndTrim(labelExpression);
+        this.comparisonMode = comparisonMode;
+    }
+
+    public String getLabelExpression() {
+        return labelExpression;
+    }
+
+    public JVMVersionComparator.ComparisonMode getComparisonMode() {
+        return comparisonMode;
+    }
+
+    /**
+     * @return whether the given node is covered by this policy. An invalid expression matches nothing.
+     */
+    boolean matches(@NonNull Node node) {
+        Label label = this.label;
+        if (label == null) {
+            if (labelExpression == null) {
+                return false;
+            }
+            try {
+                label = this.label = Label.parseExpression(labelExpression);
+            } catch (IllegalArgumentException e) {
+                LOGGER.log(Level.WARNING, "Ignoring invalid label expression: " + labelExpression, e);
+                return false;
+            }
+        }
+        return label.matches(node);
+    }
+
+    @Extension
+    public static class DescriptorImpl extends Descriptor<LabelPolicy> {
+
+        @NonNull
+        @Override
+        public String getDisplayName() {
+            return Messages.LabelPolicy_DisplayName();
+        }
+
+        public ListBoxModel doFillComparisonModeItems() {
+            return JVMVersionComparator.ComparisonMode.items();
+        }
+
+        @POST
+        public FormValidation doCheckLabelExpression(@QueryParameter String value) {
+            if (!Jenkins.get().hasPermission(Jenkins.MANAGE) || Util.fixEmptyAndTrim(value) == null) {
+                return FormValidation.ok();
+            }
+            try {
+                Label.parseExpression(value);
+                return FormValidation.ok();
+            } catch (IllegalArgumentException e) {
+                return FormValidation.error(e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Computer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.util.SystemProperties;
+
+/**
+ * Aggregates what a monitor found into one summary line per cycle, so that a fleet-wide mismatch does not log a
+ * line per agent on every cycle.
+ */
+final class MismatchLog {
+
+    /** How many distinct versions a summary lists before folding the rest into a count. */
+    static final int MAX_LISTED_VERSIONS = 10;
+
+    static final int MAX_UNPARSEABLE =
+            SystemProperties.getInteger(MismatchLog.class.getName() + ".maxUnparseable", 1024);
+
+    private final Logger logger;
+    private final String subject;
+    /** Latest finding for each agent, so that an agent checked several times in a cycle is only counted once. */
+    private final ConcurrentMap<Computer, Key> tallies = new ConcurrentHashMap<>();
+    private final Set<String> unparseable = ConcurrentHashMap.newKeySet();
+    private String lastSummary;
+
+    private record Key(String version, CompatibilityState state) {}
+
+    MismatchLog(@NonNull Logger logger, @NonNull String subject) {
+        this.logger = logger;
+        this.subject = subject;
+    }
+
+    /**
+     * Counts the given agent as found with the given version and state since the previous {@link #flush()}. An agent
+     * also checked outside of the cycle, for example when it connects, is counted once with its latest state.
+     */
+    void tally(@NonNull Computer agent, @CheckForNull String version, @NonNull CompatibilityState state) {
+        tallies.put(agent, new Key(version, state));
+    }
+
+    /**
+     * @return whether the version already failed to parse, in which case it should not be parsed again.
+     */
+    boolean isUnparseable(@CheckForNull String version) {
+        return version != null && unparseable.contains(version);
+    }
+
+    /**
+     * Remembers a version that cannot be parsed, logging the failure the first time only.
+     */
+    void parseFailed(@NonNull String version, @NonNull IllegalArgumentException e) {
+        if (unparseable.size() >= MAX_UNPARSEABLE) {
+            unparseable.clear();
+        }
+        if (unparseable.add(version)) {
+            logger.log(Level.WARNING, "Failed to parse agent version: " + version, e);
+        }
+    }
+
+    /**
+     * Logs the summary of what was tallied since the previous call. It is logged as a warning when some agents are
+     * incompatible and the summary differs from the previous one, and at {@link Level#FINE} otherwise.
+     *
+     * @return the summary, or {@code null} if nothing was tallied
+     */
+    @CheckForNull
+    synchronized String flush() {
+        Map<Key, Long> byVersion = new HashMap<>();
+        for (Computer agent : tallies.keySet()) {
+            Key key = tallies.remove(agent);
+            if (key != null) {
+                byVersion.merge(key, 1L, Long::sum);
+            }
+        }
+        List<Map.Entry<Key, Long>> counts = new ArrayList<>(byVersion.entrySet());
+        long total = 0;
+        boolean problems = false;
+        for (Map.Entry<Key, Long> e : counts) {
+            total += e.getValue();
+            problems |= e.getKey().state() != CompatibilityState.OK;
+        }
+        if (counts.isEmpty()) {
+            return null;
+        }
+        counts.sort(Comparator.<Map.Entry<Key, Long>, Boolean>comparing(
+                        e -> e.getKey().state() == CompatibilityState.OK)
+                .thenComparing(Map.Entry::getValue, Comparator.reverseOrder())
+                .thenComparing(e -> String.valueOf(e.getKey().version())));
+
+        StringBuilder summary =
+                new StringBuilder(subject).append(" versions of ").append(total).append(" agent(s):");
+        for (int i = 0; i < counts.size(); i++) {
+            if (i == MAX_LISTED_VERSIONS) {
+                summary.append(" and ").append(counts.size() - i).append(" more");
+                break;
+            }
+            Map.Entry<Key, Long> e = counts.get(i);
+            summary.append(i == 0 ? " " : ", ")
+                    .append(e.getKey().version())
+                    .append(' ')
+                    .append(e.getKey().state().toJson())
+                    .append(": ")
+                    .append(e.getValue());
+        }
+        String line = summary.toString();
+        logger.log(problems && !line.equals(lastSummary) ? Level.WARNING : Level.FINE, line);
+        lastSummary = line;
+        return line;
+    }
+}
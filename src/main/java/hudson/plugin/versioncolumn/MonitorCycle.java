@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.node_monitors.AbstractNodeMonitorDescriptor;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+
+/**
+ * Keeps the monitoring cycles of one of the monitors single-flight.
+ *
+ * <p>Core starts a new cycle when the previous one has been running for longer than the monitoring timeout, even
+ * though the previous one may still be waiting on slow agents. Such a trigger is skipped here, and answered with the
+ * results of the last completed cycle, so that remoting threads do not pile up behind unresponsive agents.
+ */
+final class MonitorCycle {
+
+    private static final Logger LOGGER = Logger.getLogger(MonitorCycle.class.getName());
+
+    static final MonitorCycle JVM = new MonitorCycle(VersionHistory.Kind.JVM);
+    static final MonitorCycle REMOTING = new MonitorCycle(VersionHistory.Kind.REMOTING);
+
+    private final VersionHistory.Kind kind;
+    private final MonitorMetrics metrics;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger probes = new AtomicInteger();
+    /** Whether a trigger was skipped during the running cycle, which makes the data shown older than one period. */
+    private volatile boolean overrun;
+
+    private volatile long started;
+
+    @CheckForNull
+    private volatile VersionEvents.Cycle event;
+
+    private MonitorCycle(VersionHistory.Kind kind) {
+        this.kind = kind;
+        this.metrics = MonitorMetrics.of(kind);
+    }
+
+    /**
+     * @return whether the caller may go through the agents, in which case it must call {@link #end(int)} once done.
+     */
+    boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            if (!overrun) {
+                overrun = true;
+                metrics.overrun();
+            }
+            metrics.skippedCycle();
+            LOGGER.log(Level.FINE, "Skipping a monitoring cycle, the one started at {0} is still running", started);
+            VersionEvents.endCycle(VersionEvents.startCycle(), kind, 0, 0, true);
+            return false;
+        }
+        started = System.currentTimeMillis();
+        probes.set(0);
+        event = VersionEvents.startCycle();
+        return true;
+    }
+
+    /**
+     * Counts an agent contacted during the running cycle.
+     */
+    void probed() {
+        probes.incrementAndGet();
+    }
+
+    /**
+     * @param agents the number of agents gone through
+     */
+    void end(int agents) {
+        long now = System.currentTimeMillis();
+        metrics.cycleCompleted(now, now - started);
+        VersionEvents.endCycle(event, kind, agents, probes.get(), false);
+        event = null;
+        overrun = false;
+        running.set(false);
+    }
+
+    /**
+     * @return whether the data shown comes from a cycle that is more than one period old.
+     */
+    boolean isStale() {
+        return overrun;
+    }
+
+    /**
+     * @return the results of the last completed cycle, to answer a skipped trigger with.
+     */
+    @NonNull
+    static Map<Computer, String> previous(@NonNull AbstractNodeMonitorDescriptor<String> descriptor) {
+        Map<Computer, String> data = new HashMap<>();
+        for (Computer c : Jenkins.get().getComputers()) {
+            data.put(c, descriptor.get(c));
+        }
+        return data;
+    }
+
+    /**
+     * @return the given column caption with the time of the last completed cycle, flagged when the cycle refreshing
+     *     it is overrunning.
+     */
+    String caption(String caption) {
+        if (caption == null) {
+            return null;
+        }
+        long completed = metrics.getLastCompletedCycle();
+        if (completed == 0) {
+            return overrun ? Messages.MonitorCycle_Stale(caption) : caption;
+        }
+        String since = Util.getTimeSpanString(System.currentTimeMillis() - completed);
+        return overrun
+                ? Messages.MonitorCycle_StaleSince(caption, since)
+                : Messages.MonitorCycle_UpdatedSince(caption, since);
+    }
+}
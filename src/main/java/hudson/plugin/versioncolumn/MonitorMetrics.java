@@ -0,0 +1,170 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Counters about what one of the monitors did, exported through {@link VersionColumnAction}.
+ */
+@ExportedBean(defaultVisibility = 2)
+public final class MonitorMetrics {
+
+    static final MonitorMetrics JVM = new MonitorMetrics();
+    static final MonitorMetrics REMOTING = new MonitorMetrics();
+
+    private final AtomicLong suppressedOffline = new AtomicLong();
+    private final AtomicLong suppressedOnline = new AtomicLong();
+    private final AtomicLong firstProbes = new AtomicLong();
+    private final AtomicLong firstProbeMillis = new AtomicLong();
+    private final AtomicLong maxFirstProbeMillis = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong skippedCycles = new AtomicLong();
+    private final AtomicLong deferredProbes = new AtomicLong();
+    private volatile long lastCompletedCycle;
+    private volatile long lastCycleDuration;
+
+    private MonitorMetrics() {}
+
+    static MonitorMetrics of(VersionHistory.Kind kind) {
+        return kind == VersionHistory.Kind.JVM ? JVM : REMOTING;
+    }
+
+    void suppressedOffline() {
+        suppressedOffline.incrementAndGet();
+    }
+
+    void suppressedOnline() {
+        suppressedOnline.incrementAndGet();
+    }
+
+    void firstProbe(long millis) {
+        firstProbes.incrementAndGet();
+        firstProbeMillis.addAndGet(millis);
+        maxFirstProbeMillis.accumulateAndGet(millis, Math::max);
+    }
+
+    void overrun() {
+        overruns.incrementAndGet();
+    }
+
+    void skippedCycle() {
+        skippedCycles.incrementAndGet();
+    }
+
+    void deferredProbe() {
+        deferredProbes.incrementAndGet();
+    }
+
+    void cycleCompleted(long timestamp, long duration) {
+        lastCompletedCycle = timestamp;
+        lastCycleDuration = duration;
+    }
+
+    /**
+     * @return how many times an agent was kept online because its mismatch streak was below the offline threshold.
+     */
+    @Exported
+    public long getSuppressedOffline() {
+        return suppressedOffline.get();
+    }
+
+    /**
+     * @return how many times an agent was kept offline because its match streak was below the online threshold.
+     */
+    @Exported
+    public long getSuppressedOnline() {
+        return suppressedOnline.get();
+    }
+
+    /**
+     * @return how many newly connected agents had their version read, when they connected or by a later cycle.
+     */
+    @Exported
+    public long getFirstProbes() {
+        return firstProbes.get();
+    }
+
+    /**
+     * @return the mean time between an agent connecting and its version being read, in milliseconds. Most agents
+     *     have their version read while connecting, so this is mostly the cost of that read; the agents for which it
+     *     failed wait for the next cycle, which shows in {@link #getMaxTimeToFirstProbe()}.
+     */
+    @Exported
+    public long getMeanTimeToFirstProbe() {
+        long count = firstProbes.get();
+        return count == 0 ? 0 : firstProbeMillis.get() / count;
+    }
+
+    /**
+     * @return the longest time between an agent connecting and its version being read, in milliseconds.
+     */
+    @Exported
+    public long getMaxTimeToFirstProbe() {
+        return maxFirstProbeMillis.get();
+    }
+
+    /**
+     * @return how many cycles were still running when the next one was due, see {@link MonitorCycle}.
+     */
+    @Exported
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    /**
+     * @return how many cycles were skipped because the previous one was still running.
+     */
+    @Exported
+    public long getSkippedCycles() {
+        return skippedCycles.get();
+    }
+
+    /**
+     * @return when the last cycle completed, in milliseconds since the epoch, or 0 if none did yet.
+     */
+    @Exported
+    public long getLastCompletedCycle() {
+        return lastCompletedCycle;
+    }
+
+    /**
+     * @return how long the last completed cycle took, in milliseconds.
+     */
+    @Exported
+    public long getLastCycleDuration() {
+        return lastCycleDuration;
+    }
+
+    /**
+     * @return how many times reading the version of an agent again was put off because the controller was
+     *     saturated, see {@link ControllerLoad}.
+     */
+    @Exported
+    public long getDeferredProbes() {
+        return deferredProbes.get();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.model.Computer;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.OfflineCause;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Order in which a monitor goes through the agents in a cycle, most urgent first:
+ *
+ * <ol>
+ *   <li>agents whose version is not known yet on their current channel, that is new or reconnected ones;
+ *   <li>agents currently offline because of a version mismatch, which may be ready to come back;
+ *   <li>all others, the ones that have been stable for the longest time last;
+ *   <li>disconnected agents, which cannot be probed anyway.
+ * </ol>
+ */
+final class ProbeOrder {
+
+    private record Ranked(Computer computer, int priority, int streak) {}
+
+    private static final Comparator<Ranked> ORDER =
+            Comparator.comparingInt(Ranked::priority).thenComparingInt(Ranked::streak);
+
+    private ProbeOrder() {}
+
+    static List<Computer> sort(
+            @NonNull Computer[] computers,
+            @NonNull VersionHistory.Kind kind,
+            @NonNull Class<? extends OfflineCause> mismatchCause) {
+        AgentVersionStore store = AgentVersionStore.get();
+        List<Ranked> ranked = new ArrayList<>(computers.length);
+        for (Computer c : computers) {
+            VirtualChannel channel = c.getChannel();
+            String known = channel == null
+                    ? null
+                    : kind == VersionHistory.Kind.JVM
+                            ? store.getJvmVersion(c, channel)
+                            : store.getRemotingVersion(c, channel);
+            int priority;
+            if (channel == null) {
+                priority = 3;
+            } else if (known == null) {
+                priority = 0;
+            } else if (c.isOffline() && mismatchCause.isInstance(c.getOfflineCause())) {
+                priority = 1;
+            } else {
+                priority = 2;
+            }
+            ranked.add(new Ranked(c, priority, priority == 2 ? store.getStreak(c.getName(), kind) : 0));
+        }
+        ranked.sort(ORDER);
+        List<Computer> sorted = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            sorted.add(r.computer());
+        }
+        return sorted;
+    }
+}
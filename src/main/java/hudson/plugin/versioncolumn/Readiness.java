@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * How much of the connected fleet is already compatible with the target version declared in one of the monitors,
+ * ahead of an upgrade of the controller.
+ *
+ * <p>The counts are adjusted as each monitor result arrives, by comparing the state of the agent with the one it had
+ * before, so that reading the gauge never goes through the fleet and updating it is O(1). Only changing the target
+ * goes through the fleet, to start counting afresh.
+ */
+@ExportedBean(defaultVisibility = 2)
+public final class Readiness {
+
+    static final byte NONE = 0;
+    static final byte READY = 1;
+    static final byte NOT_READY = 2;
+
+    static final Readiness JVM = new Readiness(VersionHistory.Kind.JVM);
+    static final Readiness REMOTING = new Readiness(VersionHistory.Kind.REMOTING);
+
+    private final VersionHistory.Kind kind;
+    private volatile String target;
+    private int ready;
+    private int notReady;
+
+    private Readiness(VersionHistory.Kind kind) {
+        this.kind = kind;
+    }
+
+    static Readiness of(VersionHistory.Kind kind) {
+        return kind == VersionHistory.Kind.JVM ? JVM : REMOTING;
+    }
+
+    /**
+     * Moves the agent of the given entry to the given state, if it was in another one.
+     */
+    synchronized void update(@NonNull AgentVersionStore.Entry entry, byte state) {
+        byte previous = entry.readiness[kind.ordinal()];
+        if (previous == state) {
+            return;
+        }
+        count(previous, -1);
+        count(state, 1);
+        entry.readiness[kind.ordinal()] = state;
+    }
+
+    private void count(byte state, int delta) {
+        if (state == READY) {
+            ready += delta;
+        } else if (state == NOT_READY) {
+            notReady += delta;
+        }
+    }
+
+    /**
+     * Switches to another target, forgetting the states counted against the previous one.
+     */
+    synchronized void retarget(@CheckForNull String target, @NonNull Iterable<AgentVersionStore.Entry> entries) {
+        target = Util.fixEmptyAndTrim(target);
+        if (Util.fixNull(target).equals(Util.fixNull(this.target))) {
+            return;
+        }
+        this.target = target;
+        ready = 0;
+        notReady = 0;
+        for (AgentVersionStore.Entry entry : entries) {
+            entry.readiness[kind.ordinal()] = NONE;
+        }
+    }
+
+    /**
+     * @return the version the fleet is checked against, or {@code null} if none was declared.
+     */
+    @Exported
+    @CheckForNull
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return how many connected agents would be compatible with the target.
+     */
+    @Exported
+    public synchronized int getReady() {
+        return ready;
+    }
+
+    /**
+     * @return how many connected agents would not be compatible with the target.
+     */
+    @Exported
+    public synchronized int getNotReady() {
+        return notReady;
+    }
+
+    /**
+     * @return the percentage of the agents checked against the target that would be compatible with it, or -1 if
+     *     none was checked yet.
+     */
+    @Exported
+    public synchronized int getPercentReady() {
+        int total = ready + notReady;
+        return total == 0 ? -1 : (int) (100L * ready / total);
+    }
+
+    /**
+     * @return the given column caption, completed with the readiness of the fleet if a target is declared.
+     */
+    String caption(String caption) {
+        String target = this.target;
+        int percent = getPercentReady();
+        if (caption == null || target == null || percent < 0) {
+            return caption;
+        }
+        return Messages.Readiness_Caption(caption, percent, target);
+    }
+}
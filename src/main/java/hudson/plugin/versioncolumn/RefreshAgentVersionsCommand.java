@@ -0,0 +1,70 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import hudson.Extension;
+import hudson.cli.CLICommand;
+import hudson.model.Computer;
+import java.util.List;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONObject;
+import org.kohsuke.args4j.Argument;
+import org.kohsuke.args4j.Option;
+
+/**
+ * Reads the versions of selected agents again, see {@link VersionRefresh}.
+ */
+@Extension
+public class RefreshAgentVersionsCommand extends CLICommand {
+
+    @Option(name = "-label", metaVar = "EXPRESSION", usage = "Refresh the agents matching this label expression")
+    public String label;
+
+    @Argument(metaVar = "NODE", usage = "Names of the agents to refresh")
+    public List<String> nodes;
+
+    @Override
+    public String getShortDescription() {
+        return Messages.RefreshAgentVersionsCommand_ShortDescription();
+    }
+
+    @Override
+    protected int run() throws Exception {
+        Jenkins.get().checkPermission(Jenkins.MANAGE);
+        List<Computer> computers = VersionRefresh.select(label, nodes == null ? null : String.join(",", nodes));
+        JSONObject results = VersionRefresh.refresh(computers);
+        int failures = 0;
+        for (Object name : results.keySet()) {
+            JSONObject result = results.getJSONObject((String) name);
+            if (result.has("error")) {
+                failures++;
+                stderr.println(name + ": " + result.getString("error"));
+            } else {
+                stdout.println(name + ": JVM " + result.getString("jvmVersion") + ", remoting "
+                        + result.getString("remotingVersion"));
+            }
+        }
+        return failures == 0 ? 0 : 1;
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.Extension;
+import hudson.model.Api;
+import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.model.Failure;
+import hudson.model.RootAction;
+import hudson.node_monitors.NodeMonitor;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import jenkins.model.Jenkins;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.kohsuke.stapler.HttpResponse;
+import org.kohsuke.stapler.HttpResponses;
+import org.kohsuke.stapler.QueryParameter;
+import org.kohsuke.stapler.Stapler;
+import org.kohsuke.stapler.StaplerRequest2;
+import org.kohsuke.stapler.StaplerResponse2;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+import org.kohsuke.stapler.verb.GET;
+import org.kohsuke.stapler.verb.POST;
+
+/**
+ * Serves the version data of all agents as one compact JSON payload, so that the version columns can be filled
+ * in the browser instead of rendering every cell on the controller.
+ *
+ * <p>It also hosts the fleet-wide views of the plugin:
+ * <ul>
+ *   <li>its remote API exports the {@link MonitorMetrics} of both monitors, the upgrade {@link Readiness}, the
+ *       {@link ControllerLoad} and the {@link BuildDurations} per JVM version;
+ *   <li>{@code simulation/} evaluates a policy change, see {@link FleetSimulation};
+ *   <li>{@code refresh} reads the versions of selected agents again, see {@link VersionRefresh}.
+ * </ul>
+ */
+@Extension
+@ExportedBean
+public class VersionColumnAction implements RootAction {
+
+    static final String URL_NAME = "versionColumn";
+
+    @Override
+    public String getIconFileName() {
+        return null;
+    }
+
+    @Override
+    public String getDisplayName() {
+        return null;
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    public Api getApi() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        return new Api(this);
+    }
+
+    @Exported
+    public MonitorMetrics getJvmMetrics() {
+        return MonitorMetrics.JVM;
+    }
+
+    @Exported
+    public MonitorMetrics getRemotingMetrics() {
+        return MonitorMetrics.REMOTING;
+    }
+
+    @Exported
+    public ControllerLoad getLoad() {
+        return ControllerLoad.get();
+    }
+
+    /**
+     * @return the durations of the builds per JVM version of the agent they ran on, see {@link BuildAgentVersions}.
+     */
+    @Exported
+    public List<BuildDurations> getBuildDurations() {
+        return BuildDurations.all();
+    }
+
+    @Exported
+    public Readiness getJvmReadiness() {
+        return Readiness.JVM;
+    }
+
+    @Exported
+    public Readiness getRemotingReadiness() {
+        return Readiness.REMOTING;
+    }
+
+    /**
+     * Payload of the form {@code {"jvmVersion":[["node","17.0.9","ok"],...],"remotingVersion":[...]}}, holding only
+     * the monitors that are currently enabled.
+     */
+    @GET
+    public void doData(StaplerRequest2 req, StaplerResponse2 rsp) throws IOException {
+        Jenkins.get().checkPermission(Jenkins.READ);
+        String payload = buildPayload().toString();
+        String etag = '"' + Integer.toHexString(payload.hashCode()) + '"';
+        rsp.setHeader("Cache-Control", "private, no-cache");
+        rsp.setHeader("ETag", etag);
+        if (etag.equals(req.getHeader("If-None-Match"))) {
+            rsp.setStatus(StaplerResponse2.SC_NOT_MODIFIED);
+            return;
+        }
+        rsp.setContentType("application/json;charset=UTF-8");
+        PrintWriter w = rsp.getWriter();
+        w.write(payload);
+        w.flush();
+    }
+
+    /**
+     * What-if evaluation of the {@code comparisonMode}, {@code controllerVersion} and {@code remotingVersion}
+     * request parameters, browsable at {@code versionColumn/simulation/} and through its remote API.
+     */
+    public FleetSimulation getSimulation() {
+        Jenkins.get().checkPermission(Jenkins.SYSTEM_READ);
+        StaplerRequest2 req = Stapler.getCurrentRequest2();
+        JVMVersionMonitor monitor = ComputerSet.getMonitors().get(JVMVersionMonitor.class);
+        JVMVersionComparator.ComparisonMode defaultMode = monitor == null
+                ? JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE
+                : monitor.getComparisonMode();
+        try {
+            return FleetSimulation.of(
+                    req == null ? null : req.getParameter("comparisonMode"),
+                    req == null ? null : req.getParameter("controllerVersion"),
+                    req == null ? null : req.getParameter("remotingVersion"),
+                    defaultMode,
+                    monitor,
+                    ComputerSet.getMonitors().get(VersionMonitor.class));
+        } catch (IllegalArgumentException e) {
+            throw new Failure(Messages.FleetSimulation_InvalidParameter(e.getMessage()));
+        }
+    }
+
+    /**
+     * Reads the versions of the agents matching the {@code label} expression or listed in {@code nodes} again, and
+     * answers with what was read, see {@link VersionRefresh}.
+     */
+    @POST
+    public HttpResponse doRefresh(@QueryParameter String label, @QueryParameter String nodes)
+            throws InterruptedException {
+        Jenkins.get().checkPermission(Jenkins.MANAGE);
+        List<Computer> computers;
+        try {
+            computers = VersionRefresh.select(label, nodes);
+        } catch (IllegalArgumentException e) {
+            throw new Failure(e.getMessage());
+        }
+        return HttpResponses.okJSON(VersionRefresh.refresh(computers));
+    }
+
+    static JSONObject buildPayload() {
+        JSONObject payload = new JSONObject();
+        Computer[] computers = Jenkins.get().getComputers();
+        for (NodeMonitor monitor : ComputerSet.getMonitors()) {
+            if (monitor instanceof JVMVersionMonitor jvm) {
+                JSONArray rows = new JSONArray();
+                for (Computer c : computers) {
+                    String version = (String) jvm.data(c);
+                    rows.add(row(c, version, jvm.getState(c, version), jvm.getDrainState(c)));
+                }
+                payload.put("jvmVersion", rows);
+            } else if (monitor instanceof VersionMonitor remoting) {
+                JSONArray rows = new JSONArray();
+                for (Computer c : computers) {
+                    String version = (String) remoting.data(c);
+                    rows.add(row(c, version, remoting.getState(version), remoting.getDrainState(c)));
+                }
+                payload.put("remotingVersion", rows);
+            }
+        }
+        return payload;
+    }
+
+    /**
+     * @return the name of the agent, its version and compatibility state, followed by its draining state only if it
+     *     is draining.
+     */
+    private static JSONArray row(
+            Computer c, String version, CompatibilityState state, @CheckForNull String drainState) {
+        JSONArray row = new JSONArray();
+        row.add(c.getName());
+        row.add(version == null ? "N/A" : version);
+        row.add(state.toJson());
+        if (drainState != null) {
+            row.add(drainState);
+        }
+        return row;
+    }
+}
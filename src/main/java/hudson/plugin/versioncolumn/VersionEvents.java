@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import hudson.model.Computer;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the work done by this plugin, so that it can be correlated with the latency of the
+ * controller in the same recording.
+ *
+ * <p>They are disabled by default, and enabled through the settings of the recording. While disabled, the only cost is
+ * a check on an event that does not escape, which the JIT eliminates.
+ */
+final class VersionEvents {
+
+    static final String SOURCE_CYCLE = "cycle";
+    static final String SOURCE_CONNECT = "connect";
+    static final String SOURCE_REFRESH = "refresh";
+
+    static final String OUTCOME_OK = "ok";
+    static final String OUTCOME_FAILED = "failed";
+    static final String OUTCOME_TIMEOUT = "timeout";
+
+    static final String ACTION_OFFLINE = "offline";
+    static final String ACTION_ONLINE = "online";
+    static final String ACTION_DRAIN = "drain";
+
+    private VersionEvents() {}
+
+    @Name("hudson.plugin.versioncolumn.Probe")
+    @Label("Agent Version Probe")
+    @Description("Remote call reading the versions of an agent")
+    @Category({"Jenkins", "Version Column"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Probe extends Event {
+        @Label("Agent")
+        String agent;
+
+        @Label("Callable")
+        String callable;
+
+        @Label("Source")
+        @Description("What triggered the probe: cycle, connect or refresh")
+        String source;
+
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("hudson.plugin.versioncolumn.Cycle")
+    @Label("Version Monitor Cycle")
+    @Description("Monitoring cycle of one of the version monitors")
+    @Category({"Jenkins", "Version Column"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Cycle extends Event {
+        @Label("Monitor")
+        String monitor;
+
+        @Label("Agents")
+        int agents;
+
+        @Label("Probes")
+        @Description("Agents contacted during the cycle, the others were answered from what was already known")
+        int probes;
+
+        @Label("Probes Skipped")
+        int skippedProbes;
+
+        @Label("Skipped")
+        @Description("Whether the cycle was skipped because the previous one was still running")
+        boolean skipped;
+    }
+
+    @Name("hudson.plugin.versioncolumn.Enforcement")
+    @Label("Version Enforcement")
+    @Description("Agent taken offline, drained or brought back online because of its version")
+    @Category({"Jenkins", "Version Column"})
+    @Enabled(false)
+    @StackTrace(false)
+    static final class Enforcement extends Event {
+        @Label("Agent")
+        String agent;
+
+        @Label("Monitor")
+        String monitor;
+
+        @Label("Action")
+        String action;
+
+        @Label("Agent Version")
+        String version;
+    }
+
+    /**
+     * @return a started probe event, or {@code null} if the event is disabled
+     */
+    @CheckForNull
+    static Probe startProbe() {
+        Probe event = new Probe();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endProbe(
+            @CheckForNull Probe event, Computer c, Class<?> callable, String source, String outcome) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.agent = c.getName();
+            event.callable = callable.getSimpleName();
+            event.source = source;
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+
+    /**
+     * @return a started cycle event, or {@code null} if the event is disabled
+     */
+    @CheckForNull
+    static Cycle startCycle() {
+        Cycle event = new Cycle();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    static void endCycle(
+            @CheckForNull Cycle event, VersionHistory.Kind kind, int agents, int probes, boolean skipped) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.monitor = kind.name();
+            event.agents = agents;
+            event.probes = probes;
+            event.skippedProbes = Math.max(0, agents - probes);
+            event.skipped = skipped;
+            event.commit();
+        }
+    }
+
+    static void enforcement(Computer c, VersionHistory.Kind kind, String action, @CheckForNull String version) {
+        Enforcement event = new Enforcement();
+        if (event.shouldCommit()) {
+            event.agent = c.getName();
+            event.monitor = kind.name();
+            event.action = action;
+            event.version = version;
+            event.commit();
+        }
+    }
+}
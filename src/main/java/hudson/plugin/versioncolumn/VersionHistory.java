@@ -0,0 +1,148 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import org.kohsuke.stapler.export.Exported;
+import org.kohsuke.stapler.export.ExportedBean;
+
+/**
+ * Fixed-size ring buffer of the version changes observed on one agent, backed by arrays so that its footprint is
+ * known upfront: 13 bytes per slot with compressed references, the versions themselves being shared through
+ * {@link VersionKeys}.
+ *
+ * <p>Only changes are recorded: a check whose version and state equal the previous one of the same kind is dropped.
+ */
+public final class VersionHistory {
+
+    /** What was checked. */
+    public enum Kind {
+        JVM,
+        REMOTING
+    }
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final CompatibilityState[] STATES = CompatibilityState.values();
+
+    private final long[] timestamps;
+    private final String[] versions;
+    /** Kind in the high nibble, state in the low one. */
+    private final byte[] kindsAndStates;
+
+    private int next;
+    private int size;
+
+    VersionHistory(int capacity) {
+        timestamps = new long[capacity];
+        versions = new String[capacity];
+        kindsAndStates = new byte[capacity];
+    }
+
+    /**
+     * @return {@code true} if the event was recorded, {@code false} if it did not change anything.
+     */
+    synchronized boolean record(
+            long timestamp, @NonNull Kind kind, @CheckForNull String version, @NonNull CompatibilityState state) {
+        int capacity = timestamps.length;
+        String shared = VersionKeys.intern(version);
+        byte kindAndState = (byte) (kind.ordinal() << 4 | state.ordinal());
+        for (int i = 1; i <= size; i++) {
+            int slot = (next - i + capacity) % capacity;
+            if (kindsAndStates[slot] >> 4 == kind.ordinal()) {
+                if (kindsAndStates[slot] == kindAndState && Objects.equals(versions[slot], shared)) {
+                    return false;
+                }
+                break;
+            }
+        }
+        timestamps[next] = timestamp;
+        versions[next] = shared;
+        kindsAndStates[next] = kindAndState;
+        next = (next + 1) % capacity;
+        size = Math.min(size + 1, capacity);
+        return true;
+    }
+
+    /**
+     * @return the recorded events, oldest first.
+     */
+    synchronized List<Event> getEvents() {
+        int capacity = timestamps.length;
+        List<Event> events = new ArrayList<>(size);
+        for (int i = size; i >= 1; i--) {
+            int slot = (next - i + capacity) % capacity;
+            events.add(new Event(
+                    timestamps[slot],
+                    KINDS[kindsAndStates[slot] >> 4],
+                    versions[slot],
+                    STATES[kindsAndStates[slot] & 0x0F]));
+        }
+        return events;
+    }
+
+    @ExportedBean(defaultVisibility = 2)
+    public static final class Event {
+
+        private final long timestamp;
+        private final Kind kind;
+        private final String version;
+        private final CompatibilityState state;
+
+        Event(long timestamp, Kind kind, String version, CompatibilityState state) {
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.version = version;
+            this.state = state;
+        }
+
+        @Exported
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public Date getDate() {
+            return new Date(timestamp);
+        }
+
+        @Exported
+        public Kind getKind() {
+            return kind;
+        }
+
+        @Exported
+        public String getVersion() {
+            return version;
+        }
+
+        @Exported
+        public CompatibilityState getState() {
+            return state;
+        }
+    }
+}
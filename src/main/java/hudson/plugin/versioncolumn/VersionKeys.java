@@ -0,0 +1,77 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import jenkins.util.SystemProperties;
+
+/**
+ * Single shared instance of each of the handful of distinct version strings seen across the fleet, so that per-agent
+ * data does not hold one copy per agent and per check.
+ *
+ * <p>The instances are only weakly held: a version no longer referenced by any agent data is dropped, so the table
+ * does not grow with every version ever seen. The table is also bounded by {@link #MAX_KEYS}: once it is full, new
+ * versions are returned as they are, without being shared, until older ones are dropped.
+ */
+final class VersionKeys {
+
+    static /* non-final for script console */ int MAX_KEYS =
+            SystemProperties.getInteger(VersionKeys.class.getName() + ".maxKeys", 4096);
+
+    private static final Map<String, WeakReference<String>> VALUES = new WeakHashMap<>();
+
+    private VersionKeys() {}
+
+    /**
+     * @return the instance of the given version string shared across agents, or the given string itself once the
+     *     table is full
+     */
+    @CheckForNull
+    static String intern(@CheckForNull String version) {
+        if (version == null) {
+            return null;
+        }
+        synchronized (VALUES) {
+            WeakReference<String> ref = VALUES.get(version);
+            String shared = ref == null ? null : ref.get();
+            if (shared == null) {
+                if (VALUES.size() >= MAX_KEYS) {
+                    return version;
+                }
+                VALUES.put(version, new WeakReference<>(version));
+                shared = version;
+            }
+            return shared;
+        }
+    }
+
+    static int size() {
+        synchronized (VALUES) {
+            return VALUES.size();
+        }
+    }
+}
@@ -23,26 +23,54 @@
  */
 package hudson.plugin.versioncolumn;
 
+import edu.umd.cs.findbugs.annotations.CheckForNull;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import hudson.Extension;
 import hudson.Util;
 import hudson.model.Computer;
+import hudson.model.ComputerSet;
 import hudson.node_monitors.AbstractNodeMonitorDescriptor;
 import hudson.node_monitors.MonitorOfflineCause;
 import hudson.node_monitors.NodeMonitor;
+import hudson.remoting.Channel;
+import hudson.remoting.ChannelProperty;
 import hudson.remoting.Launcher;
+import hudson.remoting.LocalChannel;
+import hudson.remoting.VirtualChannel;
+import hudson.util.ListBoxModel;
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import jenkins.model.Jenkins;
 import jenkins.security.MasterToSlaveCallable;
 import org.jenkinsci.Symbol;
+import org.jvnet.localizer.LocaleProvider;
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.export.Exported;
 
 public class VersionMonitor extends NodeMonitor {
 
     private static final String masterVersion = Launcher.VERSION;
 
+    /**
+     * Remoting version of the other side, attached to the channel once known so that it can be read locally for as
+     * long as the channel lives.
+     */
+    static final ChannelProperty<String> REMOTING_VERSION = new ChannelProperty<>(String.class, "remoting version");
+
+    private boolean clientSideRendering;
+    private int offlineThreshold = 1;
+    private int onlineThreshold = 1;
+    private String targetRemotingVersion;
+    private EnforcementMode enforcementMode = EnforcementMode.OFFLINE;
+
     @DataBoundConstructor
     public VersionMonitor() {}
 
@@ -57,6 +85,102 @@ public class VersionMonitor extends NodeMonitor {
         return version;
     }
 
+    /**
+     * Compatibility of the given agent version with the controller one, without rendering anything.
+     */
+    public CompatibilityState getState(String version) {
+        return getState(masterVersion, version);
+    }
+
+    /**
+     * Compatibility of an agent version with the given controller one. An agent whose version is unknown is
+     * handled as a mismatch by the checks.
+     */
+    static CompatibilityState getState(@NonNull String controllerVersion, @CheckForNull String version) {
+        if (version == null) {
+            return CompatibilityState.UNKNOWN;
+        }
+        return version.equals(controllerVersion) ? CompatibilityState.OK : CompatibilityState.MISMATCH;
+    }
+
+    /**
+     * @return how many consecutive mismatches it takes to take an agent offline.
+     */
+    public int getOfflineThreshold() {
+        return Math.max(1, offlineThreshold);
+    }
+
+    @DataBoundSetter
+    public void setOfflineThreshold(int offlineThreshold) {
+        this.offlineThreshold = Math.max(1, offlineThreshold);
+    }
+
+    /**
+     * @return how many consecutive matches it takes to bring an agent taken offline by this monitor back online.
+     */
+    public int getOnlineThreshold() {
+        return Math.max(1, onlineThreshold);
+    }
+
+    @DataBoundSetter
+    public void setOnlineThreshold(int onlineThreshold) {
+        this.onlineThreshold = Math.max(1, onlineThreshold);
+    }
+
+    public boolean isClientSideRendering() {
+        return clientSideRendering;
+    }
+
+    /**
+     * When set, the column is filled in the browser from {@link VersionColumnAction#doData} instead of being
+     * rendered on the controller for each row.
+     */
+    @DataBoundSetter
+    public void setClientSideRendering(boolean clientSideRendering) {
+        this.clientSideRendering = clientSideRendering;
+    }
+
+    public EnforcementMode getEnforcementMode() {
+        return enforcementMode == null ? EnforcementMode.OFFLINE : enforcementMode;
+    }
+
+    @DataBoundSetter
+    public void setEnforcementMode(EnforcementMode enforcementMode) {
+        this.enforcementMode = enforcementMode;
+    }
+
+    /**
+     * @return how the agent is draining before being taken offline because of its remoting version, if it is.
+     */
+    @CheckForNull
+    public String getDrainState(Computer c) {
+        return Drain.describe(c, VersionHistory.Kind.REMOTING);
+    }
+
+    public String getTargetRemotingVersion() {
+        return targetRemotingVersion;
+    }
+
+    /**
+     * Controller remoting version to count agents against ahead of an upgrade, see {@link Readiness}. It does not
+     * affect which agents are taken offline.
+     */
+    @DataBoundSetter
+    public void setTargetRemotingVersion(String targetRemotingVersion) {
+        this.targetRemotingVersion = Util.fixEmptyAndTrim(targetRemotingVersion);
+        AgentVersionStore.get().retarget(VersionHistory.Kind.REMOTING, this.targetRemotingVersion);
+    }
+
+    protected Object readResolve() {
+        AgentVersionStore.get().retarget(VersionHistory.Kind.REMOTING, targetRemotingVersion);
+        return this;
+    }
+
+    @Override
+    public String getColumnCaption() {
+        return Readiness.REMOTING.caption(MonitorCycle.REMOTING.caption(super.getColumnCaption()));
+    }
+
     @SuppressFBWarnings(value = "MS_PKGPROTECT", justification = "for backward compatibility")
     public static /*almost final*/ AbstractNodeMonitorDescriptor<String> DESCRIPTOR;
 
@@ -64,6 +188,11 @@ public class VersionMonitor extends NodeMonitor {
     @Symbol("remotingVersion")
     public static class DescriptorImpl extends AbstractNodeMonitorDescriptor<String> {
 
+        private final transient MismatchLog mismatchLog = new MismatchLog(LOGGER, "Remoting");
+
+        /** Localized message of {@link RemotingVersionMismatchCause}, by locale. */
+        private final transient Map<Locale, String> offlineCauses = new ConcurrentHashMap<>();
+
         @SuppressFBWarnings(
                 value = "ST_WRITE_TO_STATIC_FROM_INSTANCE_METHOD",
                 justification = "for backward compatibility")
@@ -71,33 +200,178 @@ public class VersionMonitor extends NodeMonitor {
             DESCRIPTOR = this;
         }
 
+        /**
+         * Same as the default implementation, except that agents are gone through in {@link ProbeOrder}, and that a
+         * cycle is not started while the previous one is still running, see {@link MonitorCycle}.
+         */
+        @Override
+        protected Map<Computer, String> monitor() throws InterruptedException {
+            if (!MonitorCycle.REMOTING.start()) {
+                return MonitorCycle.previous(this);
+            }
+            List<Computer> computers = ProbeOrder.sort(
+                    Jenkins.get().getComputers(), VersionHistory.Kind.REMOTING, RemotingVersionMismatchCause.class);
+            Map<Computer, String> data = new HashMap<>();
+            try {
+                for (Computer c : computers) {
+                    try {
+                        data.put(c, c.getChannel() == null ? null : monitor(c));
+                    } catch (RuntimeException | IOException e) {
+                        LOGGER.log(
+                                Level.WARNING,
+                                "Failed to monitor " + c.getDisplayName() + " for " + getDisplayName(),
+                                e);
+                    }
+                }
+            } finally {
+                mismatchLog.flush();
+                MonitorCycle.REMOTING.end(computers.size());
+            }
+            return data;
+        }
+
         protected String monitor(Computer c) throws IOException, InterruptedException {
-            hudson.remoting.VirtualChannel channel = c.getChannel();
+            VirtualChannel channel = c.getChannel();
             if (channel == null) {
                 return "unknown-version";
             }
-            String version = channel.call(new SlaveVersion());
-            if (version == null || !version.equals(masterVersion)) {
+            String version = AgentVersionStore.get().getRemotingVersion(c, channel);
+            if (version == null) {
+                version = getRemotingVersion(channel);
+                if (version == null) {
+                    if (AgentVersionStore.get().isRetry(c, channel, VersionHistory.Kind.REMOTING)
+                            && ControllerLoad.get().isSaturated()) {
+                        MonitorMetrics.REMOTING.deferredProbe();
+                        return super.get(c);
+                    }
+                    MonitorCycle.REMOTING.probed();
+                    VersionEvents.Probe event = VersionEvents.startProbe();
+                    String outcome = VersionEvents.OUTCOME_FAILED;
+                    try {
+                        version = VersionKeys.intern(channel.call(new SlaveVersion()));
+                        outcome = VersionEvents.OUTCOME_OK;
+                    } finally {
+                        VersionEvents.endProbe(event, c, SlaveVersion.class, VersionEvents.SOURCE_CYCLE, outcome);
+                        if (version == null) {
+                            AgentVersionStore.get().probeFailed(c, channel, VersionHistory.Kind.REMOTING);
+                        }
+                    }
+                }
+                AgentVersionStore.get().recordRemotingVersion(c, channel, version);
+            }
+            markNodeOfflineOrOnline(c, version, (VersionMonitor) ComputerSet.getMonitors().get(this));
+            return version;
+        }
+
+        void markNodeOfflineOrOnline(Computer c, String version, @CheckForNull VersionMonitor monitor) {
+            CompatibilityState state = getState(masterVersion, version);
+            AgentVersionStore.get().recordState(c.getName(), VersionHistory.Kind.REMOTING, version, state);
+            mismatchLog.tally(c, version, state);
+            String target = monitor == null ? null : monitor.getTargetRemotingVersion();
+            if (target != null) {
+                AgentVersionStore.get()
+                        .recordReadiness(
+                                c.getName(),
+                                VersionHistory.Kind.REMOTING,
+                                version == null
+                                        ? Readiness.NONE
+                                        : target.equals(version) ? Readiness.READY : Readiness.NOT_READY);
+            }
+            boolean compatible = state == CompatibilityState.OK;
+            int streak = AgentVersionStore.get().observe(c.getName(), VersionHistory.Kind.REMOTING, compatible);
+            if (!compatible) {
                 if (!isIgnored()) {
-                    markOffline(c, new RemotingVersionMismatchCause(Messages.VersionMonitor_OfflineCause()));
-                    LOGGER.warning(Messages.VersionMonitor_MarkedOffline(c.getName()));
+                    if (monitor != null && streak < monitor.getOfflineThreshold()) {
+                        if (!(c.isOffline() && c.getOfflineCause() instanceof RemotingVersionMismatchCause)) {
+                            MonitorMetrics.REMOTING.suppressedOffline();
+                            LOGGER.fine(() -> "Keeping " + c.getName() + " online after " + streak
+                                    + " consecutive remoting version mismatch(es)");
+                        }
+                        return;
+                    }
+                    enforce(c, version, monitor);
                 } else {
+                    AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.REMOTING);
                     if (c.isOffline() && c.getOfflineCause() instanceof RemotingVersionMismatchCause) {
                         c.setTemporarilyOffline(false, null);
+                        VersionEvents.enforcement(
+                                c, VersionHistory.Kind.REMOTING, VersionEvents.ACTION_ONLINE, version);
                     }
                 }
             } else {
+                AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.REMOTING);
                 if (c.isOffline() && c.getOfflineCause() instanceof RemotingVersionMismatchCause) {
+                    if (monitor != null && streak < monitor.getOnlineThreshold()) {
+                        MonitorMetrics.REMOTING.suppressedOnline();
+                        LOGGER.fine(() -> "Keeping " + c.getName() + " offline after " + streak
+                                + " consecutive remoting version match(es)");
+                        return;
+                    }
                     c.setTemporarilyOffline(false, null);
+                    VersionEvents.enforcement(c, VersionHistory.Kind.REMOTING, VersionEvents.ACTION_ONLINE, version);
                 }
             }
-            return version;
+        }
+
+        /**
+         * Prefers the version read from the current channel, which is known as soon as the probe returns, over the
+         * data of the last completed cycle.
+         */
+        @Override
+        public String get(Computer c) {
+            VirtualChannel channel = c.getChannel();
+            String version = AgentVersionStore.get().getRemotingVersion(c, channel);
+            if (version == null) {
+                version = getRemotingVersion(channel);
+            }
+            return version != null ? version : super.get(c);
+        }
+
+        /**
+         * Stops an incompatible agent from taking work, right away or once its running builds are over depending on
+         * {@link VersionMonitor#getEnforcementMode()}.
+         */
+        void enforce(Computer c, @CheckForNull String version, @CheckForNull VersionMonitor monitor) {
+            if (isIgnored()) {
+                AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.REMOTING);
+                return;
+            }
+            if (monitor != null
+                    && monitor.getEnforcementMode() == EnforcementMode.DRAIN
+                    && !c.isOffline()
+                    && !c.isIdle()) {
+                AgentVersionStore store = AgentVersionStore.get();
+                if (store.startDraining(c.getName(), VersionHistory.Kind.REMOTING)) {
+                    LOGGER.warning(Messages.VersionMonitor_Draining(c.getName(), c.countBusy()));
+                    VersionEvents.enforcement(c, VersionHistory.Kind.REMOTING, VersionEvents.ACTION_DRAIN, version);
+                }
+                // without a known channel there is nothing to track the draining with
+                if (store.isDraining(c.getName(), VersionHistory.Kind.REMOTING)) {
+                    return;
+                }
+            }
+            AgentVersionStore.get().stopDraining(c.getName(), VersionHistory.Kind.REMOTING);
+            if (c.getTemporaryOfflineCause() != null) {
+                // already offline, for this reason or another one, which markOffline would leave as is
+                return;
+            }
+            String message = offlineCauses.computeIfAbsent(
+                    LocaleProvider.getLocale(), locale -> Messages._VersionMonitor_OfflineCause().toString(locale));
+            if (markOffline(c, new RemotingVersionMismatchCause(message))) {
+                // only when the agent actually changes state, the rest goes to the cycle summary
+                LOGGER.warning(Messages.VersionMonitor_MarkedOffline(c.getName()));
+                VersionEvents.enforcement(c, VersionHistory.Kind.REMOTING, VersionEvents.ACTION_OFFLINE, version);
+            }
         }
 
         @NonNull
         public String getDisplayName() {
             return Messages.VersionMonitor_DisplayName();
         }
+
+        public ListBoxModel doFillEnforcementModeItems() {
+            return EnforcementMode.items();
+        }
     }
 
     public static class RemotingVersionMismatchCause extends MonitorOfflineCause {
@@ -121,7 +395,22 @@ public class VersionMonitor extends NodeMonitor {
         }
     }
 
-    private static final class SlaveVersion extends MasterToSlaveCallable<String, IOException> {
+    /**
+     * @return the remoting version of the other side of the channel if it can be known without a remote call, that
+     *     is for the built-in node, or once {@link #REMOTING_VERSION} was attached to the channel
+     */
+    @CheckForNull
+    static String getRemotingVersion(@CheckForNull VirtualChannel channel) {
+        if (channel instanceof LocalChannel) {
+            return Launcher.VERSION;
+        }
+        if (channel instanceof Channel ch) {
+            return ch.getProperty(REMOTING_VERSION);
+        }
+        return null;
+    }
+
+    static final class SlaveVersion extends MasterToSlaveCallable<String, IOException> {
 
         private static final long serialVersionUID = 1L;
 
@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import hudson.remoting.Launcher;
+import java.io.IOException;
+import jenkins.security.MasterToSlaveCallable;
+
+/**
+ * Reads the JVM and remoting versions of an agent in a single call.
+ *
+ * <p>This is the first class of the plugin an agent has to load when it connects, so it is kept as small as
+ * possible: a top-level class without nested classes, lambdas or references to anything of the plugin or of Jenkins
+ * core beyond its superclass, so that deserializing it does not pull any further class over the channel.
+ */
+final class VersionProbe extends MasterToSlaveCallable<String[], IOException> {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Index of the JVM version in the result. */
+    static final int JVM = 0;
+
+    /** Index of the remoting version in the result. */
+    static final int REMOTING = 1;
+
+    @Override
+    public String[] call() {
+        return new String[] {Runtime.version().toString(), Launcher.VERSION};
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * The MIT License
+ *
+ * Copyright (c) 2026-, Jenkins contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package hudson.plugin.versioncolumn;
+
+import edu.umd.cs.findbugs.annotations.CheckForNull;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import hudson.Util;
+import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.model.Label;
+import hudson.model.Node;
+import hudson.remoting.VirtualChannel;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import jenkins.model.Jenkins;
+import jenkins.util.SystemProperties;
+import net.sf.json.JSONObject;
+
+/**
+ * Reads the versions of selected agents again, outside of the monitoring cycles, for instance right after they were
+ * reimaged. Used by {@link VersionColumnAction#doRefresh} and {@link RefreshAgentVersionsCommand}.
+ *
+ * <p>Requests overlapping on an agent share a single probe of that agent. The versions read are recorded in
+ * {@link AgentVersionStore}, where the monitors take them from, and the agent is taken offline or brought back online
+ * as the monitors would do.
+ */
+final class VersionRefresh {
+
+    private static final Logger LOGGER = Logger.getLogger(VersionRefresh.class.getName());
+
+    static /* non-final for script console */ long TIMEOUT =
+            SystemProperties.getLong(VersionRefresh.class.getName() + ".timeout", TimeUnit.MINUTES.toMillis(1));
+
+    private static final Map<String, CompletableFuture<String[]>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private VersionRefresh() {}
+
+    /**
+     * @param labelExpression connected agents matching this label expression are selected, if not empty
+     * @param nodes names of agents to select, separated by commas or spaces, if not empty. They are selected even if
+     *     disconnected, so that the answer says so.
+     * @return the agents selected, in the order of {@link Jenkins#getComputers()}
+     * @throws IllegalArgumentException if nothing is selected, the label expression is invalid or a node is unknown
+     */
+    @NonNull
+    static List<Computer> select(@CheckForNull String labelExpression, @CheckForNull String nodes) {
+        labelExpression = Util.fixEmptyAndTrim(labelExpression);
+        nodes = Util.fixEmptyAndTrim(nodes);
+        if (labelExpression == null && nodes == null) {
+            throw new IllegalArgumentException(Messages.VersionRefresh_NothingSelected());
+        }
+        Label label = labelExpression == null ? null : Label.parseExpression(labelExpression);
+        List<String> names = new ArrayList<>();
+        if (nodes != null) {
+            for (String name : nodes.split("[,\\s]+")) {
+                if (!name.isEmpty()) {
+                    if (Jenkins.get().getComputer(name) == null) {
+                        throw new IllegalArgumentException(Messages.VersionRefresh_UnknownNode(name));
+                    }
+                    names.add(name);
+                }
+            }
+        }
+        List<Computer> selected = new ArrayList<>();
+        for (Computer c : Jenkins.get().getComputers()) {
+            Node node = c.getNode();
+            if (node != null
+                    && (names.contains(c.getName())
+                            || (label != null && c.getChannel() != null && label.matches(node)))) {
+                selected.add(c);
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Probes the given agents and waits for their versions, up to {@link #TIMEOUT} in all.
+     *
+     * @return for each agent name, its {@code jvmVersion} and {@code remotingVersion}, or the {@code error} met
+     */
+    @NonNull
+    static JSONObject refresh(@NonNull List<Computer> computers) throws InterruptedException {
+        Map<String, CompletableFuture<String[]>> probes = new LinkedHashMap<>();
+        for (Computer c : computers) {
+            probes.put(c.getName(), refresh(c));
+        }
+        long end = System.currentTimeMillis() + TIMEOUT;
+        JSONObject results = new JSONObject();
+        for (Map.Entry<String, CompletableFuture<String[]>> e : probes.entrySet()) {
+            JSONObject result = new JSONObject();
+            try {
+                String[] versions =
+                        e.getValue().get(Math.max(0, end - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+                result.put("jvmVersion", versions[VersionProbe.JVM]);
+                result.put("remotingVersion", versions[VersionProbe.REMOTING]);
+            } catch (ExecutionException x) {
+                result.put("error", String.valueOf(x.getCause()));
+            } catch (TimeoutException x) {
+                result.put("error", "No answer within " + TIMEOUT + "ms");
+            }
+            results.put(e.getKey(), result);
+        }
+        return results;
+    }
+
+    /**
+     * @return the probe of the given agent, started now unless one is already in flight
+     */
+    @NonNull
+    static CompletableFuture<String[]> refresh(@NonNull Computer c) {
+        String name = c.getName();
+        CompletableFuture<String[]> probe = new CompletableFuture<>();
+        CompletableFuture<String[]> inFlight = IN_FLIGHT.putIfAbsent(name, probe);
+        if (inFlight != null) {
+            return inFlight;
+        }
+        Computer.threadPoolForRemoting.submit(() -> {
+            try {
+                probe(c, probe);
+            } finally {
+                // whatever happened, the next refresh starts a new probe
+                IN_FLIGHT.remove(name, probe);
+            }
+        });
+        return probe;
+    }
+
+    private static void probe(Computer c, CompletableFuture<String[]> probe) {
+        VirtualChannel channel = c.getChannel();
+        if (channel == null) {
+            probe.completeExceptionally(new IOException(Messages.VersionRefresh_Offline(c.getName())));
+            return;
+        }
+        VersionEvents.Probe event = VersionEvents.startProbe();
+        String outcome = VersionEvents.OUTCOME_FAILED;
+        Future<String[]> call = null;
+        try {
+            call = channel.callAsync(new VersionProbe());
+            String[] versions = call.get(TIMEOUT, TimeUnit.MILLISECONDS);
+            outcome = VersionEvents.OUTCOME_OK;
+            apply(c, channel, versions);
+            probe.complete(versions);
+        } catch (InterruptedException x) {
+            Thread.currentThread().interrupt();
+            probe.completeExceptionally(x);
+        } catch (TimeoutException x) {
+            outcome = VersionEvents.OUTCOME_TIMEOUT;
+            LOGGER.log(Level.FINE, "Failed to refresh the versions of " + c.getName(), x);
+            probe.completeExceptionally(x);
+        } catch (IOException | ExecutionException | RuntimeException x) {
+            LOGGER.log(Level.FINE, "Failed to refresh the versions of " + c.getName(), x);
+            probe.completeExceptionally(x);
+        } finally {
+            if (call != null) {
+                // nobody is waiting for it anymore on a timeout or an interruption
+                call.cancel(true);
+            }
+            VersionEvents.endProbe(event, c, VersionProbe.class, VersionEvents.SOURCE_REFRESH, outcome);
+        }
+    }
+
+    private static void apply(Computer c, VirtualChannel channel, String[] versions) {
+        String jvmVersion = VersionKeys.intern(versions[VersionProbe.JVM]);
+        String remotingVersion = VersionKeys.intern(versions[VersionProbe.REMOTING]);
+        AgentVersionStore.get().recordJvmVersion(c, channel, jvmVersion);
+        AgentVersionStore.get().recordRemotingVersion(c, channel, remotingVersion);
+        JVMVersionMonitor jvmMonitor = ComputerSet.getMonitors().get(JVMVersionMonitor.class);
+        if (jvmMonitor != null) {
+            ((JVMVersionMonitor.JvmVersionDescriptor) jvmMonitor.getDescriptor())
+                    .markNodeOfflineOrOnline(c, jvmVersion, jvmMonitor);
+        }
+        VersionMonitor remotingMonitor = ComputerSet.getMonitors().get(VersionMonitor.class);
+        if (remotingMonitor != null) {
+            ((VersionMonitor.DescriptorImpl) remotingMonitor.getDescriptor())
+                    .markNodeOfflineOrOnline(c, remotingVersion, remotingMonitor);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Fills the version columns of the node list from the single payload served by VersionColumnAction.
+ */
+(function () {
+  var payload = null;
+
+  function load() {
+    if (payload === null) {
+      var rootUrl = document.head.getAttribute("data-rooturl") || "";
+      payload = fetch(rootUrl + "/versionColumn/data")
+        .then(function (rsp) {
+          return rsp.ok ? rsp.json() : {};
+        })
+        .then(function (json) {
+          var byMonitor = {};
+          Object.keys(json).forEach(function (monitor) {
+            var rows = {};
+            json[monitor].forEach(function (row) {
+              rows[row[0]] = row;
+            });
+            byMonitor[monitor] = rows;
+          });
+          return byMonitor;
+        });
+    }
+    return payload;
+  }
+
+  Behaviour.specify(
+    "td.versioncolumn-cell",
+    "versioncolumn-cell",
+    0,
+    function (td) {
+      load().then(function (byMonitor) {
+        var rows = byMonitor[td.getAttribute("data-versioncolumn-monitor")] || {};
+        var row = rows[td.getAttribute("data-versioncolumn-node")];
+        var version = row ? row[1] : "N/A";
+        td.setAttribute("data", version);
+        if (row && row[2] === "mismatch") {
+          var span = document.createElement("span");
+          span.className = "error";
+          span.style.display = "inline-block";
+          span.textContent = version;
+          td.replaceChildren(span);
+        } else {
+          td.textContent = version;
+        }
+        if (row && row.length > 3) {
+          var drainState = document.createElement("span");
+          drainState.className = "jenkins-!-warning-color";
+          drainState.textContent = row[3];
+          td.append(document.createElement("br"), drainState);
+        }
+      });
+    },
+  );
+})();
@@ -0,0 +1,208 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.model.Computer;
+import hudson.remoting.VirtualChannel;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.MemoryAssert;
+
+class AgentVersionStoreTest {
+
+    @Test
+    void testVersionsAreBoundToTheirChannel() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("agent");
+        VirtualChannel first = mock(VirtualChannel.class);
+        VirtualChannel second = mock(VirtualChannel.class);
+
+        store.recordJvmVersion(computer, first, "21.0.9");
+        store.recordRemotingVersion(computer, first, "3309.v27b_9314fd1a_4");
+        assertEquals("21.0.9", store.getJvmVersion(computer, first));
+        assertEquals("3309.v27b_9314fd1a_4", store.getRemotingVersion(computer, first));
+
+        // a reconnection must not see the versions of the previous channel
+        assertNull(store.getJvmVersion(computer, second));
+        store.recordJvmVersion(computer, second, "17.0.17");
+        assertEquals("17.0.17", store.getJvmVersion(computer, second));
+        assertNull(store.getRemotingVersion(computer, second));
+        assertNull(store.getJvmVersion(computer, first));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void testUnnamedComputerIsIgnored() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        Computer computer = mock(Computer.class);
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        store.recordJvmVersion(computer, channel, "21.0.9");
+        assertNull(store.getJvmVersion(computer, channel));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void testCreateDeleteCyclesLeaveNothingBehind() throws Exception {
+        AgentVersionStore store = new AgentVersionStore(AgentVersionStore.DEFAULT_MAX_ENTRIES, 4, 1_000);
+        VirtualChannel channel = mock(VirtualChannel.class);
+        WeakReference<String> lastVersion = null;
+
+        for (int i = 0; i < 100_000; i++) {
+            String name = "agent-" + i;
+            // a version of its own for each agent, so that nothing else holds on to it
+            String version = new StringBuilder("21.0.").append(i).toString();
+            store.recordJvmVersion(name, channel, version);
+            store.recordRemotingVersion(name, channel, "3309.v27b_9314fd1a_4");
+            store.recordState(name, VersionHistory.Kind.JVM, version, CompatibilityState.MISMATCH);
+            store.observe(name, VersionHistory.Kind.JVM, false);
+            store.resolvePolicy(name, 1, () -> JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+            store.startDraining(name, VersionHistory.Kind.JVM);
+            lastVersion = new WeakReference<>(store.getHistory(name).get(0).getVersion());
+            store.remove(name);
+        }
+
+        assertEquals(0, store.size());
+        assertEquals(0, store.getHistorySlots(), "history slots returned to the budget");
+        assertTrue(store.getDraining().isEmpty());
+        MemoryAssert.assertGC(lastVersion, false);
+    }
+
+    @Test
+    void testStreaksRestartOnReconnection() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        store.recordJvmVersion("agent", mock(VirtualChannel.class), "17.0.17");
+        store.observe("agent", VersionHistory.Kind.JVM, false);
+        store.observe("agent", VersionHistory.Kind.JVM, false);
+        assertEquals(2, store.getStreak("agent", VersionHistory.Kind.JVM));
+
+        store.detach("agent");
+        assertEquals(0, store.getStreak("agent", VersionHistory.Kind.JVM));
+        store.recordJvmVersion("agent", mock(VirtualChannel.class), "17.0.17");
+        assertEquals(1, store.observe("agent", VersionHistory.Kind.JVM, false));
+    }
+
+    @Test
+    void testSizeIsBoundedWithoutDeletes() {
+        AgentVersionStore store = new AgentVersionStore(1_000);
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        for (int i = 0; i < 100_000; i++) {
+            store.recordJvmVersion("agent-" + i, channel, "21.0.9");
+            assertTrue(store.size() <= 1_000, "store grew to " + store.size());
+        }
+
+        // the most recent agents are kept
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("agent-99999");
+        assertEquals("21.0.9", store.getJvmVersion(computer, channel));
+    }
+
+    @Test
+    void testHistorySurvivesDisconnection() {
+        AgentVersionStore store = new AgentVersionStore(10, 4, 100);
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        store.recordJvmVersion("agent", channel, "21.0.9");
+        store.recordState("agent", VersionHistory.Kind.JVM, "21.0.9", CompatibilityState.OK);
+        store.detach("agent");
+        store.recordJvmVersion("agent", mock(VirtualChannel.class), "17.0.17");
+        store.recordState("agent", VersionHistory.Kind.JVM, "17.0.17", CompatibilityState.MISMATCH);
+
+        assertEquals(2, store.getHistory("agent").size());
+        store.remove("agent");
+        assertTrue(store.getHistory("agent").isEmpty());
+        assertEquals(0, store.getHistorySlots());
+    }
+
+    @Test
+    void testHistoryBudgetIsFleetWide() {
+        AgentVersionStore store = new AgentVersionStore(100, 4, 8);
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        for (int i = 0; i < 3; i++) {
+            store.recordJvmVersion("agent-" + i, channel, "21.0.9");
+            store.recordState("agent-" + i, VersionHistory.Kind.JVM, "21.0.9", CompatibilityState.OK);
+        }
+
+        assertEquals(8, store.getHistorySlots());
+        assertEquals(1, store.getHistory("agent-1").size());
+        assertTrue(store.getHistory("agent-2").isEmpty(), "third agent is over budget");
+    }
+
+    @Test
+    void testTimeToFirstProbeIsMeasuredOncePerChannel() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("agent");
+        VirtualChannel channel = mock(VirtualChannel.class);
+        long before = MonitorMetrics.JVM.getFirstProbes();
+
+        store.recordJvmVersion(computer, channel, "21.0.9");
+        assertEquals(before, MonitorMetrics.JVM.getFirstProbes(), "connection time unknown");
+
+        VirtualChannel reconnected = mock(VirtualChannel.class);
+        store.connected(computer, reconnected);
+        store.recordJvmVersion(computer, reconnected, "21.0.9");
+        store.recordJvmVersion(computer, reconnected, "21.0.9");
+        assertEquals(before + 1, MonitorMetrics.JVM.getFirstProbes());
+    }
+
+    @Test
+    void testDrainingIsTrackedPerKind() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        assertFalse(store.startDraining("unknown", VersionHistory.Kind.JVM), "No channel to drain");
+        store.recordJvmVersion("agent", channel, "21.0.9");
+        assertTrue(store.startDraining("agent", VersionHistory.Kind.JVM));
+        assertFalse(store.startDraining("agent", VersionHistory.Kind.JVM), "Already draining");
+        assertTrue(store.startDraining("agent", VersionHistory.Kind.REMOTING));
+        assertEquals(List.of("agent"), store.getDraining());
+
+        store.stopDraining("agent", VersionHistory.Kind.JVM);
+        assertTrue(store.isDraining("agent"));
+        assertFalse(store.isDraining("agent", VersionHistory.Kind.JVM));
+        store.stopDraining("agent", VersionHistory.Kind.REMOTING);
+        assertFalse(store.isDraining("agent"));
+        assertTrue(store.getDraining().isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    void testVersionStringsAreShared() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        store.recordJvmVersion("first", channel, new String("21.0.9"));
+        store.recordJvmVersion("second", channel, new String("21.0.9"));
+        Computer first = mock(Computer.class);
+        when(first.getName()).thenReturn("first");
+        Computer second = mock(Computer.class);
+        when(second.getName()).thenReturn("second");
+        assertSame(store.getJvmVersion(first, channel), store.getJvmVersion(second, channel));
+    }
+
+    @Test
+    void testOnlyFailedReadsAreRetries() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("agent");
+        VirtualChannel channel = mock(VirtualChannel.class);
+
+        assertFalse(store.isRetry(computer, channel, VersionHistory.Kind.JVM), "First read of a new channel");
+        store.probeFailed(computer, channel, VersionHistory.Kind.JVM);
+        assertTrue(store.isRetry(computer, channel, VersionHistory.Kind.JVM));
+        assertFalse(store.isRetry(computer, channel, VersionHistory.Kind.REMOTING));
+
+        store.recordJvmVersion(computer, channel, "21.0.9");
+        assertFalse(store.isRetry(computer, channel, VersionHistory.Kind.JVM));
+
+        store.probeFailed(computer, channel, VersionHistory.Kind.JVM);
+        VirtualChannel reconnected = mock(VirtualChannel.class);
+        assertFalse(store.isRetry(computer, reconnected, VersionHistory.Kind.JVM), "New channel");
+    }
+}
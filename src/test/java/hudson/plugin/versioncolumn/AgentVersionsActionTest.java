@@ -0,0 +1,57 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import hudson.model.Computer;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.htmlunit.FailingHttpStatusCodeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockAuthorizationStrategy;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class AgentVersionsActionTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        j = rule;
+        j.jenkins.setSecurityRealm(j.createDummySecurityRealm());
+        j.jenkins.setAuthorizationStrategy(new MockAuthorizationStrategy()
+                .grant(Jenkins.READ)
+                .everywhere()
+                .to("reader", "agent-reader", "system-reader")
+                .grant(Computer.EXTENDED_READ)
+                .everywhere()
+                .to("agent-reader")
+                .grant(Jenkins.SYSTEM_READ)
+                .everywhere()
+                .to("system-reader"));
+    }
+
+    @Test
+    void testOnlyShownToUsersWhoMayReadTheConfiguration() throws Exception {
+        for (String user : new String[] {"agent-reader", "system-reader"}) {
+            JenkinsRule.WebClient wc = j.createWebClient().login(user);
+            assertEquals(200, wc.goTo("computer/(built-in)/versions/").getWebResponse().getStatusCode(), user);
+            wc.goTo("computer/(built-in)/versions/api/json", "application/json");
+        }
+
+        AgentVersionsAction action = new AgentVersionsAction(j.jenkins.toComputer());
+        try (ACLContext ignored = ACL.as2(User.getById("reader", true).impersonate2())) {
+            assertNull(action.getUrlName());
+            assertNull(action.getIconFileName());
+        }
+        JenkinsRule.WebClient wc = j.createWebClient().login("reader");
+        FailingHttpStatusCodeException e = assertThrows(
+                FailingHttpStatusCodeException.class,
+                () -> wc.goTo("computer/(built-in)/versions/api/json", "application/json"));
+        assertEquals(404, e.getStatusCode());
+    }
+}
@@ -0,0 +1,52 @@
+package hudson.plugin.versioncolumn;
+
+import hudson.model.Label;
+import hudson.model.Result;
+import hudson.remoting.Launcher;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class AgentVersionsStepTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        j = rule;
+    }
+
+    @Test
+    void testVersionsOfTheCurrentAgent() throws Exception {
+        j.createOnlineSlave(Label.get("remote"));
+        WorkflowJob p = j.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition(
+                """
+                node('remote') {
+                  def v = agentVersions()
+                  echo "jvm=${v.jvmVersion} feature=${v.jvmFeatureVersion} remoting=${v.remotingVersion}"
+                }
+                """,
+                true));
+
+        WorkflowRun b = j.buildAndAssertSuccess(p);
+
+        j.assertLogContains(
+                "jvm=" + Runtime.version() + " feature=" + Runtime.version().feature() + " remoting="
+                        + Launcher.VERSION,
+                b);
+    }
+
+    @Test
+    void testOutsideOfNode() throws Exception {
+        WorkflowJob p = j.createProject(WorkflowJob.class, "p");
+        p.setDefinition(new CpsFlowDefinition("agentVersions()", true));
+
+        j.assertBuildStatus(Result.FAILURE, p.scheduleBuild2(0));
+    }
+}
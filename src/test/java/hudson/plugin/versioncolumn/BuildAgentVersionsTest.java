@@ -0,0 +1,68 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Label;
+import hudson.remoting.Launcher;
+import hudson.slaves.DumbSlave;
+import org.junit.jupiter.api.BeforeEach;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class BuildAgentVersionsTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        j = rule;
+    }
+
+    @Test
+    void testBuildIsStampedWithAgentVersions() throws Exception {
+        DumbSlave agent = j.createOnlineSlave();
+        FreeStyleProject project = j.createFreeStyleProject();
+        project.setAssignedNode(agent);
+
+        FreeStyleBuild build = j.buildAndAssertSuccess(project);
+
+        BuildAgentVersions versions = build.getAction(BuildAgentVersions.class);
+        assertNotNull(versions);
+        assertEquals(agent.getNodeName(), versions.getNode());
+        assertEquals(Runtime.version().toString(), versions.getJvmVersion());
+        assertEquals(Launcher.VERSION, versions.getRemotingVersion());
+
+        BuildDurations durations = BuildDurations.all().stream()
+                .filter(d -> d.getJvmVersion().equals(Runtime.version().toString()))
+                .findFirst()
+                .orElseThrow();
+        assertTrue(durations.getCount() >= 1);
+    }
+
+    @Test
+    void testPipelineIsStampedFromItsNodeBlocks() throws Exception {
+        DumbSlave agent = j.createOnlineSlave(Label.get("remote"));
+        WorkflowJob job = j.createProject(WorkflowJob.class);
+        job.setDefinition(new CpsFlowDefinition(
+                """
+                node('remote') { echo 'first' }
+                node('remote') { echo 'second' }
+                """,
+                true));
+
+        WorkflowRun run = j.buildAndAssertSuccess(job);
+
+        assertEquals(1, run.getActions(BuildAgentVersions.class).size());
+        BuildAgentVersions versions = run.getAction(BuildAgentVersions.class);
+        assertEquals(agent.getNodeName(), versions.getNode());
+        assertEquals(Runtime.version().toString(), versions.getJvmVersion());
+        assertEquals(Launcher.VERSION, versions.getRemotingVersion());
+    }
+}
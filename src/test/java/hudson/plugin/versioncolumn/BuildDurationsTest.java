@@ -0,0 +1,38 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class BuildDurationsTest {
+
+    @Test
+    void testMeanAndPercentile() {
+        BuildDurations durations = new BuildDurations("21.0.9");
+        assertEquals(0, durations.getP95Duration());
+        for (int i = 1; i <= 100; i++) {
+            durations.add(i * 1000L);
+        }
+
+        assertEquals(100, durations.getCount());
+        assertEquals(50_500, durations.getMeanDuration());
+        long p95 = durations.getP95Duration();
+        assertTrue(p95 >= 95_000 && p95 <= 95_000 * 1.1, "p95 is " + p95);
+    }
+
+    @Test
+    void testPercentileNeverExceedsMax() {
+        BuildDurations durations = new BuildDurations("21.0.9");
+        durations.add(1234);
+
+        assertEquals(1234, durations.getP95Duration());
+    }
+
+    @Test
+    void testBuckets() {
+        assertEquals(0, BuildDurations.bucketOf(0));
+        assertEquals(0, BuildDurations.bucketOf(-5));
+        assertTrue(BuildDurations.bucketOf(1000) < BuildDurations.bucketOf(1200));
+        assertEquals(255, BuildDurations.bucketOf(Long.MAX_VALUE));
+    }
+}
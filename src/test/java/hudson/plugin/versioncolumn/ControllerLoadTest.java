@@ -0,0 +1,42 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ControllerLoadTest {
+
+    @Test
+    void testQueueLengthThreshold() {
+        assertFalse(ControllerLoad.isSaturated(ControllerLoad.MAX_QUEUE_LENGTH, 0, 4));
+        assertTrue(ControllerLoad.isSaturated(ControllerLoad.MAX_QUEUE_LENGTH + 1, 0, 4));
+    }
+
+    @Test
+    void testLoadAverageThreshold() {
+        double limit = ControllerLoad.MAX_LOAD_PER_PROCESSOR * 4;
+        assertFalse(ControllerLoad.isSaturated(0, limit, 4));
+        assertTrue(ControllerLoad.isSaturated(0, limit + 0.01, 4));
+        // the same load is fine with more processors
+        assertFalse(ControllerLoad.isSaturated(0, limit + 0.01, 8));
+    }
+
+    @Test
+    void testUnavailableLoadAverage() {
+        assertFalse(ControllerLoad.isSaturated(0, -1, 1));
+    }
+
+    @Test
+    void testMalformedThresholdFallsBackToDefault() {
+        String name = ControllerLoad.class.getName() + ".testMalformedThresholdFallsBackToDefault";
+        assertEquals(2.0, ControllerLoad.getDouble(name, 2.0));
+        System.setProperty(name, "1.5");
+        try {
+            assertEquals(1.5, ControllerLoad.getDouble(name, 2.0));
+            System.setProperty(name, "two");
+            assertEquals(2.0, ControllerLoad.getDouble(name, 2.0));
+        } finally {
+            System.clearProperty(name);
+        }
+    }
+}
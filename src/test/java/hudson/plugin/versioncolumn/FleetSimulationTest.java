@@ -0,0 +1,111 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.remoting.VirtualChannel;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FleetSimulationTest {
+
+    private AgentVersionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new AgentVersionStore(100);
+        VirtualChannel channel = mock(VirtualChannel.class);
+        store.recordJvmVersion("java17", channel, "17.0.17+10");
+        store.recordRemotingVersion("java17", channel, "3309.v27b_9314fd1a_4");
+        store.recordJvmVersion("java21", channel, "21.0.9+10");
+        store.recordRemotingVersion("java21", channel, "3327.v868139a_d00e0");
+        store.recordJvmVersion("java21.0.8", channel, "21.0.8+9");
+        store.recordRemotingVersion("java21.0.8", channel, "3327.v868139a_d00e0");
+        store.recordJvmVersion("garbage", channel, "not-a-version");
+    }
+
+    @Test
+    void testFeatureRelease() {
+        FleetSimulation simulation = new FleetSimulation(
+                store.snapshot(),
+                JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE,
+                Runtime.Version.parse("21.0.9"),
+                "3327.v868139a_d00e0");
+
+        assertEquals(4, simulation.getTotal());
+        assertEquals(List.of("java17"), simulation.getJvmMismatches());
+        // the remoting version of "garbage" is unknown, which the checks treat as a mismatch
+        assertEquals(List.of("garbage", "java17"), simulation.getRemotingMismatches());
+        assertEquals(List.of("garbage"), simulation.getUnknown());
+    }
+
+    @Test
+    void testMajorMinor() {
+        FleetSimulation simulation = new FleetSimulation(
+                store.snapshot(),
+                JVMVersionComparator.ComparisonMode.MAJOR_MINOR_MATCH,
+                Runtime.Version.parse("21.0.9"),
+                "3327.v868139a_d00e0");
+
+        assertEquals(List.of("java17", "java21.0.8"), simulation.getJvmMismatches());
+    }
+
+    @Test
+    void testOlderControllerTarget() {
+        FleetSimulation simulation = new FleetSimulation(
+                store.snapshot(),
+                JVMVersionComparator.ComparisonMode.EXACT_MATCH,
+                Runtime.Version.parse("17.0.17"),
+                "3309.v27b_9314fd1a_4");
+
+        assertEquals(List.of("java21", "java21.0.8"), simulation.getJvmMismatches());
+        assertEquals(List.of("garbage", "java21", "java21.0.8"), simulation.getRemotingMismatches());
+    }
+
+    @Test
+    void testLabelPolicyWins() {
+        FleetSimulation simulation = new FleetSimulation(
+                store.snapshot(),
+                name -> name.equals("java21.0.8")
+                        ? JVMVersionComparator.ComparisonMode.MAJOR_MINOR_MATCH
+                        : JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE,
+                true,
+                true,
+                JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE,
+                Runtime.Version.parse("21.0.9"),
+                "3327.v868139a_d00e0");
+
+        assertEquals(List.of("java17", "java21.0.8"), simulation.getJvmMismatches());
+    }
+
+    @Test
+    void testDisabledMonitorsAreSkipped() {
+        FleetSimulation simulation = new FleetSimulation(
+                store.snapshot(),
+                name -> JVMVersionComparator.ComparisonMode.EXACT_MATCH,
+                false,
+                false,
+                JVMVersionComparator.ComparisonMode.EXACT_MATCH,
+                Runtime.Version.parse("17.0.17"),
+                "3309.v27b_9314fd1a_4");
+
+        assertFalse(simulation.isJvmChecked());
+        assertFalse(simulation.isRemotingChecked());
+        assertEquals(List.of(), simulation.getJvmMismatches());
+        assertEquals(List.of(), simulation.getRemotingMismatches());
+        assertEquals(List.of(), simulation.getUnknown());
+    }
+
+    @Test
+    void testInvalidParameter() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> FleetSimulation.of(
+                        "NO_SUCH_MODE", null, null, JVMVersionComparator.ComparisonMode.EXACT_MATCH, null, null));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> FleetSimulation.of(
+                        null, "x.y", null, JVMVersionComparator.ComparisonMode.EXACT_MATCH, null, null));
+    }
+}
@@ -1,13 +1,40 @@
 package hudson.plugin.versioncolumn;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import hudson.ExtensionList;
+import hudson.Launcher;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
 import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Label;
+import hudson.model.Queue;
+import hudson.model.queue.QueueTaskFuture;
+import hudson.remoting.Channel;
+import hudson.remoting.VirtualChannel;
 import hudson.slaves.DumbSlave;
+import hudson.util.OneShotEvent;
+import hudson.util.StreamTaskListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.TestBuilder;
 import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
 
 @WithJenkins
@@ -53,4 +80,276 @@ class JVMVersionMonitorJenkinsRuleTest {
         }
         assertEquals(2, result.size(), "result is " + result.keySet());
     }
+
+    @Test
+    void testVersionReadOnConnectIsReused() throws Exception {
+        ComputerSet.getMonitors().replace(monitor);
+        DumbSlave agent = j.createOnlineSlave();
+        Computer computer = agent.toComputer();
+        assertEquals(
+                Runtime.version().toString(), AgentVersionStore.get().getJvmVersion(computer, computer.getChannel()));
+        assertEquals(Runtime.version().toString(), descriptor.monitor().get(computer));
+
+        // agents are not probed again on the same channel
+        VirtualChannel channel = mock(VirtualChannel.class);
+        Computer known = agent("testVersionReadOnConnectIsReused", channel);
+        AgentVersionStore.get().recordJvmVersion(known, channel, Runtime.version().toString());
+        assertEquals(
+                Runtime.version().toString(),
+                descriptor.monitorAll(new Computer[] {known}, 30_000).get(known));
+        verify(channel, never()).callAsync(any());
+        AgentVersionStore.get().remove(known.getName());
+    }
+
+    @Test
+    void testLabelPolicyOverridesComparisonMode() throws Exception {
+        DumbSlave legacy = j.createOnlineSlave(Label.get("legacy"));
+        DumbSlave other = j.createOnlineSlave();
+        JVMVersionMonitor monitor = new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+        monitor.setLabelPolicies(List.of(new LabelPolicy(
+                "legacy", JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE)));
+        assertEquals(
+                JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE,
+                monitor.getEffectiveComparisonMode(legacy.toComputer()));
+        assertEquals(
+                JVMVersionComparator.ComparisonMode.EXACT_MATCH,
+                monitor.getEffectiveComparisonMode(other.toComputer()));
+
+        // Changing the policies invalidates the cached resolution
+        monitor.setLabelPolicies(
+                List.of(new LabelPolicy("legacy", JVMVersionComparator.ComparisonMode.MAJOR_MINOR_MATCH)));
+        assertEquals(
+                JVMVersionComparator.ComparisonMode.MAJOR_MINOR_MATCH,
+                monitor.getEffectiveComparisonMode(legacy.toComputer()));
+    }
+
+    @Test
+    void testSimulationAppliesLabelPolicies() throws Exception {
+        DumbSlave legacy = j.createOnlineSlave(Label.get("legacy"));
+        DumbSlave other = j.createOnlineSlave();
+        for (DumbSlave agent : List.of(legacy, other)) {
+            Computer c = agent.toComputer();
+            AgentVersionStore.get().recordJvmVersion(c, c.getChannel(), "21.0.8+9");
+        }
+        // a policy with the same mode as the monitor still wins over the simulated one
+        JVMVersionMonitor monitor = new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+        monitor.setLabelPolicies(
+                List.of(new LabelPolicy("legacy", JVMVersionComparator.ComparisonMode.EXACT_MATCH)));
+
+        FleetSimulation simulation = FleetSimulation.of(
+                "RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE",
+                "21.0.9",
+                null,
+                monitor.getComparisonMode(),
+                monitor,
+                null);
+
+        List<String> mismatches = simulation.getJvmMismatches();
+        assertTrue(mismatches.contains(legacy.getNodeName()), mismatches::toString);
+        assertFalse(mismatches.contains(other.getNodeName()), mismatches::toString);
+    }
+
+    @Test
+    void testJdkLabelChangeInvalidatesLabelPolicy() throws Exception {
+        DumbSlave agent = j.createOnlineSlave();
+        Computer computer = agent.toComputer();
+        JVMVersionMonitor monitor =
+                new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE);
+        monitor.setLabelPolicies(
+                List.of(new LabelPolicy("jdk-99", JVMVersionComparator.ComparisonMode.EXACT_MATCH)));
+        assertEquals(
+                JVMVersionComparator.ComparisonMode.RUNTIME_GREATER_OR_EQUAL_MASTER_BYTECODE,
+                monitor.getEffectiveComparisonMode(computer));
+
+        agent.getRootPath()
+                .child("tools/hudson.model.JDK/jdk-99/release")
+                .write("JAVA_VERSION=\"99.0.1\"", "ISO-8859-1");
+        JdkInventory.scan(computer, agent, computer.getChannel());
+
+        assertTrue(agent.getAssignedLabels().contains(j.jenkins.getLabelAtom("jdk-99")));
+        assertEquals(JVMVersionComparator.ComparisonMode.EXACT_MATCH, monitor.getEffectiveComparisonMode(computer));
+    }
+
+    @Test
+    void testDisconnectingEndsDraining() throws Exception {
+        DumbSlave agent = j.createOnlineSlave();
+        assertTrue(AgentVersionStore.get().startDraining(agent.getNodeName(), VersionHistory.Kind.JVM));
+
+        agent.toComputer().disconnect(null).get();
+
+        assertFalse(AgentVersionStore.get().isDraining(agent.getNodeName()));
+    }
+
+    @Test
+    void testDrainingAgentFinishesItsBuildsBeforeGoingOffline() throws Exception {
+        monitor.setEnforcementMode(EnforcementMode.DRAIN);
+        ComputerSet.getMonitors().replace(monitor);
+        DumbSlave agent = j.createOnlineSlave();
+        Computer computer = agent.toComputer();
+        OneShotEvent started = new OneShotEvent();
+        OneShotEvent release = new OneShotEvent();
+        FreeStyleProject project = j.createFreeStyleProject();
+        project.setAssignedNode(agent);
+        project.getBuildersList().add(new TestBuilder() {
+            @Override
+            public boolean perform(AbstractBuild<?, ?> build, Launcher launcher, BuildListener listener)
+                    throws InterruptedException {
+                started.signal();
+                release.block();
+                return true;
+            }
+        });
+        QueueTaskFuture<FreeStyleBuild> build = project.scheduleBuild2(0);
+        started.block();
+
+        descriptor.enforce(computer, "1.8.0", monitor);
+        assertFalse(computer.isOffline(), "Agent should keep running its build");
+        assertTrue(AgentVersionStore.get().isDraining(computer.getName()));
+        assertNotNull(new Drain.Dispatcher().canTake(agent, (Queue.BuildableItem) null), "New tasks should wait");
+        assertNotNull(monitor.getDrainState(computer));
+
+        // nothing happens while the build is running
+        Drain.Reaper reaper = ExtensionList.lookupSingleton(Drain.Reaper.class);
+        reaper.doRun();
+        assertFalse(computer.isOffline());
+
+        release.signal();
+        j.assertBuildStatusSuccess(build);
+        j.waitUntilNoActivity();
+        reaper.doRun();
+        assertTrue(computer.isOffline(), "Agent should be taken offline once idle");
+        assertInstanceOf(JVMVersionMonitor.JVMMismatchCause.class, computer.getOfflineCause());
+        assertFalse(AgentVersionStore.get().isDraining(computer.getName()));
+        assertNull(new Drain.Dispatcher().canTake(agent, (Queue.BuildableItem) null));
+    }
+
+    @Test
+    void testAgentComesOnlineWhenVersionsCannotBeRead() throws Exception {
+        ComputerSet.getMonitors().replace(monitor);
+        DumbSlave agent = j.createOnlineSlave();
+        Computer computer = agent.toComputer();
+        Channel channel = mock(Channel.class);
+        when(channel.call(any(VersionProbe.class))).thenThrow(new IOException("probe failed"));
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        boolean reject = AgentVersionListener.REJECT_INCOMPATIBLE;
+        AgentVersionListener.REJECT_INCOMPATIBLE = true;
+        try {
+            // must not throw, which would abort the connection
+            new AgentVersionListener()
+                    .preOnline(computer, channel, null, new StreamTaskListener(log, StandardCharsets.UTF_8));
+        } finally {
+            AgentVersionListener.REJECT_INCOMPATIBLE = reject;
+        }
+        assertTrue(log.toString(StandardCharsets.UTF_8).contains("probe failed"), log.toString(StandardCharsets.UTF_8));
+        assertFalse(computer.isOffline(), "Agent should be left to the periodic monitor");
+        assertNull(AgentVersionStore.get().getJvmVersion(computer, channel));
+    }
+
+    @Test
+    void testSlowAgentDoesNotHoldBackOthers() throws Exception {
+        ComputerSet.getMonitors().replace(monitor);
+        VirtualChannel slowChannel = mock(VirtualChannel.class);
+        Computer slow = agent("testSlowAgentDoesNotHoldBackOthers-slow", slowChannel);
+        CompletableFuture<String[]> slowAnswer = new CompletableFuture<>();
+        doReturn(slowAnswer).when(slowChannel).callAsync(any());
+        VirtualChannel fastChannel = mock(VirtualChannel.class);
+        Computer fast = agent("testSlowAgentDoesNotHoldBackOthers-fast", fastChannel);
+        doReturn(CompletableFuture.completedFuture(versions())).when(fastChannel).callAsync(any());
+
+        // the first agent only answers once the second one has been collected
+        CompletableFuture<Void> answered = CompletableFuture.runAsync(() -> {
+            while (AgentVersionStore.get().getJvmVersion(fast, fastChannel) == null) {
+                Thread.onSpinWait();
+            }
+            slowAnswer.complete(versions());
+        });
+        Map<Computer, String> result = descriptor.monitorAll(new Computer[] {slow, fast}, 30_000);
+
+        answered.get();
+        assertEquals(Runtime.version().toString(), result.get(slow));
+        assertEquals(Runtime.version().toString(), result.get(fast));
+        assertEquals(Runtime.version().toString(), AgentVersionStore.get().getJvmVersion(slow, slowChannel));
+    }
+
+    @Test
+    void testUnansweredProbeTimesOut() throws Exception {
+        ComputerSet.getMonitors().replace(monitor);
+        VirtualChannel slowChannel = mock(VirtualChannel.class);
+        Computer slow = agent("testUnansweredProbeTimesOut-slow", slowChannel);
+        CompletableFuture<String[]> slowAnswer = new CompletableFuture<>();
+        doReturn(slowAnswer).when(slowChannel).callAsync(any());
+        VirtualChannel fastChannel = mock(VirtualChannel.class);
+        Computer fast = agent("testUnansweredProbeTimesOut-fast", fastChannel);
+        doReturn(CompletableFuture.completedFuture(versions())).when(fastChannel).callAsync(any());
+
+        Map<Computer, String> result = descriptor.monitorAll(new Computer[] {slow, fast}, 200);
+
+        assertEquals(Runtime.version().toString(), result.get(fast));
+        // falls back to what was known before the cycle, nothing here
+        assertTrue(result.containsKey(slow), "Missing " + slow);
+        assertNull(result.get(slow));
+        assertTrue(slowAnswer.isCancelled(), "The abandoned probe should be cancelled");
+        assertTrue(AgentVersionStore.get().isRetry(slow, slowChannel, VersionHistory.Kind.JVM));
+    }
+
+    @Test
+    void testProbeThatCannotBeSentDoesNotStopTheCycle() throws Exception {
+        ComputerSet.getMonitors().replace(monitor);
+        VirtualChannel brokenChannel = mock(VirtualChannel.class);
+        Computer broken = agent("testProbeThatCannotBeSentDoesNotStopTheCycle-broken", brokenChannel);
+        doThrow(new IOException("channel closed")).when(brokenChannel).callAsync(any());
+        VirtualChannel fastChannel = mock(VirtualChannel.class);
+        Computer fast = agent("testProbeThatCannotBeSentDoesNotStopTheCycle-fast", fastChannel);
+        doReturn(CompletableFuture.completedFuture(versions())).when(fastChannel).callAsync(any());
+
+        Map<Computer, String> result = descriptor.monitorAll(new Computer[] {broken, fast}, 30_000);
+
+        assertTrue(result.containsKey(broken), "Missing " + broken);
+        assertNull(result.get(broken));
+        assertEquals(Runtime.version().toString(), result.get(fast));
+        assertTrue(AgentVersionStore.get().isRetry(broken, brokenChannel, VersionHistory.Kind.JVM));
+    }
+
+    @Test
+    void testRetryIsDeferredWhileSaturated() throws Exception {
+        ComputerSet.getMonitors().replace(monitor);
+        VirtualChannel channel = mock(VirtualChannel.class);
+        Computer failing = agent("testRetryIsDeferredWhileSaturated", channel);
+        AgentVersionStore.get().probeFailed(failing, channel, VersionHistory.Kind.JVM);
+        long deferred = MonitorMetrics.JVM.getDeferredProbes();
+        int maxQueueLength = ControllerLoad.MAX_QUEUE_LENGTH;
+        ControllerLoad.MAX_QUEUE_LENGTH = -1;
+        ControllerLoad.get().resample();
+        try {
+            assertTrue(ControllerLoad.get().isSaturated());
+            descriptor.monitorAll(new Computer[] {failing}, 30_000);
+        } finally {
+            ControllerLoad.MAX_QUEUE_LENGTH = maxQueueLength;
+            ControllerLoad.get().resample();
+        }
+
+        verify(channel, never()).callAsync(any());
+        assertEquals(deferred + 1, MonitorMetrics.JVM.getDeferredProbes());
+
+        // goes ahead once the controller is no longer saturated
+        doReturn(CompletableFuture.completedFuture(versions())).when(channel).callAsync(any());
+        Map<Computer, String> result = descriptor.monitorAll(new Computer[] {failing}, 30_000);
+        assertEquals(Runtime.version().toString(), result.get(failing));
+        assertFalse(AgentVersionStore.get().isRetry(failing, channel, VersionHistory.Kind.JVM));
+    }
+
+    private static Computer agent(String name, VirtualChannel channel) {
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn(name);
+        when(computer.getDisplayName()).thenReturn(name);
+        when(computer.getChannel()).thenReturn(channel);
+        return computer;
+    }
+
+    private static String[] versions() {
+        String[] versions = new String[2];
+        versions[VersionProbe.JVM] = Runtime.version().toString();
+        versions[VersionProbe.REMOTING] = hudson.remoting.Launcher.VERSION;
+        return versions;
+    }
 }
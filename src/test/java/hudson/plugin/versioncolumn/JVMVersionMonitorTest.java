@@ -5,6 +5,7 @@ import static org.mockito.Mockito.*;
 
 import hudson.model.Computer;
 import hudson.node_monitors.NodeMonitor;
+import hudson.remoting.VirtualChannel;
 import hudson.util.ListBoxModel;
 import java.lang.reflect.Method;
 import java.util.HashMap;
@@ -84,6 +85,17 @@ class JVMVersionMonitorTest {
         assertEquals(asError(majorLower()), object.toHtml(majorLower()));
     }
 
+    @Test
+    void checkState() {
+        JVMVersionMonitor object = new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+
+        assertEquals(CompatibilityState.UNKNOWN, object.getState(null));
+        assertEquals(CompatibilityState.UNKNOWN, object.getState("N/A"));
+        assertEquals(CompatibilityState.UNKNOWN, object.getState("invalid-version"));
+        assertEquals(CompatibilityState.OK, object.getState(Runtime.version().toString()));
+        assertEquals(CompatibilityState.MISMATCH, object.getState("1.1.1.1+1"));
+    }
+
     @Test
     void testIsDisconnect() {
         assertFalse(monitor.isDisconnect());
@@ -204,14 +216,13 @@ class JVMVersionMonitorTest {
         // Call createCallable
         Object callable = descriptor.createCallable(mockComputer);
 
-        // Verify that the returned object is not null
-        assertNotNull(callable, "Callable should not be null");
+        // The cycle probes agents with VersionProbe instead
+        assertNull(callable, "Callable should not be used");
     }
 
     @Test
     void testJavaVersionClass() {
         // Test that the JVMMismatchCause properly reports its trigger class
-        // This is also testing the JavaVersion class indirectly
         JVMVersionMonitor.JVMMismatchCause cause = new JVMVersionMonitor.JVMMismatchCause("Test message");
         assertEquals(JVMVersionMonitor.class, cause.getTrigger());
         assertEquals("Test message", cause.toString());
@@ -286,6 +297,89 @@ class JVMVersionMonitorTest {
         verify(mockComputer).setTemporarilyOffline(false, null);
     }
 
+    @Test
+    void testMonitorWithCompatibleVersionAndOnlineThreshold() throws Exception {
+        JVMVersionMonitor.JvmVersionDescriptor descriptor = new JVMVersionMonitor.JvmVersionDescriptor();
+
+        Computer mockComputer = mock(Computer.class);
+        when(mockComputer.getName()).thenReturn("testMonitorWithCompatibleVersionAndOnlineThreshold");
+        when(mockComputer.isOffline()).thenReturn(true);
+        when(mockComputer.getOfflineCause()).thenReturn(new JVMVersionMonitor.JVMMismatchCause("Test Cause"));
+        AgentVersionStore.get()
+                .recordJvmVersion(mockComputer, mock(VirtualChannel.class), Runtime.version().toString());
+
+        JVMVersionMonitor monitor = new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+        monitor.setOnlineThreshold(2);
+        long suppressed = MonitorMetrics.JVM.getSuppressedOnline();
+
+        // first match is not enough
+        descriptor.markNodeOfflineOrOnline(mockComputer, Runtime.version().toString(), monitor);
+        verify(mockComputer, never()).setTemporarilyOffline(anyBoolean(), any());
+        assertEquals(suppressed + 1, MonitorMetrics.JVM.getSuppressedOnline());
+
+        // second one brings it back
+        descriptor.markNodeOfflineOrOnline(mockComputer, Runtime.version().toString(), monitor);
+        verify(mockComputer).setTemporarilyOffline(false, null);
+
+        AgentVersionStore.get().remove(mockComputer.getName());
+    }
+
+    @Test
+    void testMismatchesBelowOfflineThresholdKeepAgentOnline() {
+        JVMVersionMonitor.JvmVersionDescriptor descriptor = spy(new JVMVersionMonitor.JvmVersionDescriptor());
+        doReturn(false).when(descriptor).isIgnored();
+
+        Computer mockComputer = mock(Computer.class);
+        when(mockComputer.getName()).thenReturn("testMismatchesBelowOfflineThresholdKeepAgentOnline");
+        AgentVersionStore.get().recordJvmVersion(mockComputer, mock(VirtualChannel.class), "1.1.1");
+
+        JVMVersionMonitor monitor = new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+        monitor.setOfflineThreshold(3);
+        long suppressed = MonitorMetrics.JVM.getSuppressedOffline();
+
+        descriptor.markNodeOfflineOrOnline(mockComputer, "1.1.1", monitor);
+        descriptor.markNodeOfflineOrOnline(mockComputer, "1.1.1", monitor);
+        verify(mockComputer, never()).setTemporaryOfflineCause(any());
+        assertEquals(suppressed + 2, MonitorMetrics.JVM.getSuppressedOffline());
+
+        // the third one in a row takes it offline
+        descriptor.markNodeOfflineOrOnline(mockComputer, "1.1.1", monitor);
+        verify(mockComputer).setTemporaryOfflineCause(any(JVMVersionMonitor.JVMMismatchCause.class));
+
+        AgentVersionStore.get().remove(mockComputer.getName());
+    }
+
+    @Test
+    void testMatchResetsMismatchStreak() {
+        JVMVersionMonitor.JvmVersionDescriptor descriptor = spy(new JVMVersionMonitor.JvmVersionDescriptor());
+        doReturn(false).when(descriptor).isIgnored();
+
+        Computer mockComputer = mock(Computer.class);
+        when(mockComputer.getName()).thenReturn("testMatchResetsMismatchStreak");
+        AgentVersionStore.get().recordJvmVersion(mockComputer, mock(VirtualChannel.class), "1.1.1");
+
+        JVMVersionMonitor monitor = new JVMVersionMonitor(JVMVersionComparator.ComparisonMode.EXACT_MATCH);
+        monitor.setOfflineThreshold(2);
+
+        descriptor.markNodeOfflineOrOnline(mockComputer, "1.1.1", monitor);
+        descriptor.markNodeOfflineOrOnline(mockComputer, Runtime.version().toString(), monitor);
+        descriptor.markNodeOfflineOrOnline(mockComputer, "1.1.1", monitor);
+        verify(mockComputer, never()).setTemporaryOfflineCause(any());
+
+        descriptor.markNodeOfflineOrOnline(mockComputer, "1.1.1", monitor);
+        verify(mockComputer).setTemporaryOfflineCause(any(JVMVersionMonitor.JVMMismatchCause.class));
+
+        AgentVersionStore.get().remove(mockComputer.getName());
+    }
+
+    @Test
+    void testThresholdsAreAtLeastOne() {
+        monitor.setOfflineThreshold(0);
+        monitor.setOnlineThreshold(-3);
+        assertEquals(1, monitor.getOfflineThreshold());
+        assertEquals(1, monitor.getOnlineThreshold());
+    }
+
     @Test
     void testMonitorWithIncompatibleVersionIgnored() throws Exception {
         // Create a descriptor instance
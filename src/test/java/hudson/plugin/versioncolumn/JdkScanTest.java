@@ -0,0 +1,75 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.remoting.VirtualChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JdkScanTest {
+
+    @TempDir
+    private Path tools;
+
+    @Test
+    void testToolInstallationsAreFound() throws Exception {
+        Path jdk21 = jdk("jdk-21", "JAVA_VERSION=\"21.0.9\"");
+        Path jdk8 = jdk("jdk8", "IMPLEMENTOR=\"Eclipse Adoptium\"\nJAVA_VERSION=\"1.8.0_462\"");
+        jdk("not-a-jdk", "SOMETHING=\"else\"");
+
+        Map<String, String> found = new JdkScan(tools.toString()).call();
+
+        assertEquals("21.0.9", found.get(jdk21.toFile().getCanonicalPath()));
+        assertEquals("1.8.0_462", found.get(jdk8.toFile().getCanonicalPath()));
+        assertFalse(found.containsKey(tools.resolve("not-a-jdk").toFile().getCanonicalPath()));
+    }
+
+    @Test
+    void testUnansweredScanIsCancelled() throws Exception {
+        VirtualChannel channel = mock(VirtualChannel.class);
+        CompletableFuture<Map<String, String>> scan = new CompletableFuture<>();
+        doReturn(scan).when(channel).callAsync(any());
+        long timeout = JdkInventory.TIMEOUT;
+        JdkInventory.TIMEOUT = 100;
+        try {
+            assertThrows(
+                    TimeoutException.class, () -> JdkInventory.scan(mock(Computer.class), mock(Node.class), channel));
+        } finally {
+            JdkInventory.TIMEOUT = timeout;
+        }
+        assertTrue(scan.isCancelled());
+    }
+
+    @Test
+    void testLabels() {
+        List<InstalledJdk> jdks = InstalledJdk.of(Map.of("/a", "21.0.9", "/b", "1.8.0_462", "/c", "unknown"));
+
+        assertEquals(
+                List.of("jdk-21", "jdk-8"),
+                jdks.stream()
+                        .map(InstalledJdk::getLabel)
+                        .filter(l -> l != null)
+                        .sorted()
+                        .toList());
+        assertEquals(17, InstalledJdk.featureOf("17"));
+        assertEquals(0, InstalledJdk.featureOf("unknown"));
+    }
+
+    private Path jdk(String name, String release) throws Exception {
+        Path home = Files.createDirectories(tools.resolve(name));
+        Files.writeString(home.resolve("release"), release, StandardCharsets.ISO_8859_1);
+        return home;
+    }
+}
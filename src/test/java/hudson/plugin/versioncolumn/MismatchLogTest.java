@@ -0,0 +1,121 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import hudson.model.Computer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MismatchLogTest {
+
+    private final Logger logger = Logger.getLogger(MismatchLogTest.class.getName());
+    private final List<LogRecord> records = new ArrayList<>();
+    private final Handler handler = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {}
+
+        @Override
+        public void close() {}
+    };
+
+    @BeforeEach
+    void setUp() {
+        logger.setLevel(Level.ALL);
+        logger.addHandler(handler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.removeHandler(handler);
+    }
+
+    @Test
+    void testOneSummaryPerCycle() {
+        MismatchLog log = new MismatchLog(logger, "JVM");
+        for (int i = 0; i < 1000; i++) {
+            boolean old = i % 4 == 0;
+            log.tally(
+                    mock(Computer.class),
+                    old ? "17.0.17" : "21.0.9",
+                    old ? CompatibilityState.MISMATCH : CompatibilityState.OK);
+        }
+
+        assertEquals("JVM versions of 1000 agent(s): 17.0.17 mismatch: 250, 21.0.9 ok: 750", log.flush());
+        assertEquals(1, records.size());
+        assertEquals(Level.WARNING, records.get(0).getLevel());
+        assertNull(log.flush(), "tallies are reset after each summary");
+    }
+
+    @Test
+    void testUnchangedSummaryIsNotRepeatedAsWarning() {
+        MismatchLog log = new MismatchLog(logger, "Remoting");
+        Computer agent = mock(Computer.class);
+        for (int cycle = 0; cycle < 3; cycle++) {
+            log.tally(agent, "3283.v92c105e0f819", CompatibilityState.MISMATCH);
+            log.flush();
+        }
+
+        assertEquals(3, records.size());
+        assertEquals(Level.WARNING, records.get(0).getLevel());
+        assertEquals(Level.FINE, records.get(1).getLevel());
+        assertEquals(Level.FINE, records.get(2).getLevel());
+    }
+
+    @Test
+    void testCompatibleFleetIsNotWarned() {
+        MismatchLog log = new MismatchLog(logger, "JVM");
+        log.tally(mock(Computer.class), "21.0.9", CompatibilityState.OK);
+        log.flush();
+
+        assertEquals(Level.FINE, records.get(0).getLevel());
+    }
+
+    @Test
+    void testSummaryIsBounded() {
+        MismatchLog log = new MismatchLog(logger, "JVM");
+        for (int i = 0; i < MismatchLog.MAX_LISTED_VERSIONS + 5; i++) {
+            log.tally(mock(Computer.class), "17.0." + i, CompatibilityState.MISMATCH);
+        }
+
+        assertTrue(log.flush().endsWith(" and 5 more"));
+    }
+
+    @Test
+    void testAgentCheckedTwiceIsCountedOnce() {
+        MismatchLog log = new MismatchLog(logger, "JVM");
+        Computer agent = mock(Computer.class);
+        // checked when it connects, then again by the cycle
+        log.tally(agent, "17.0.17", CompatibilityState.MISMATCH);
+        log.tally(agent, "21.0.9", CompatibilityState.OK);
+        log.tally(mock(Computer.class), "21.0.9", CompatibilityState.OK);
+
+        assertEquals("JVM versions of 2 agent(s): 21.0.9 ok: 2", log.flush());
+    }
+
+    @Test
+    void testParseFailureIsLoggedOnce() {
+        MismatchLog log = new MismatchLog(logger, "JVM");
+        assertFalse(log.isUnparseable("not-a-version"));
+
+        for (int i = 0; i < 3; i++) {
+            log.parseFailed("not-a-version", new IllegalArgumentException("not-a-version"));
+        }
+
+        assertTrue(log.isUnparseable("not-a-version"));
+        assertEquals(1, records.size());
+        assertNotNull(records.get(0).getThrown());
+    }
+}
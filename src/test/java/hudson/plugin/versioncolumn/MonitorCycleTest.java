@@ -0,0 +1,37 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class MonitorCycleTest {
+
+    @Test
+    void testOverlappingCycleIsSkipped() {
+        MonitorCycle cycle = MonitorCycle.JVM;
+        MonitorMetrics metrics = MonitorMetrics.JVM;
+        long overruns = metrics.getOverruns();
+        long skipped = metrics.getSkippedCycles();
+
+        assertTrue(cycle.start());
+        try {
+            assertFalse(cycle.caption("JVM Version").contains("stale"));
+            assertFalse(cycle.start());
+            assertFalse(cycle.start());
+            assertTrue(cycle.isStale());
+            assertTrue(cycle.caption("JVM Version").startsWith("JVM Version (stale"));
+        } finally {
+            cycle.end(0);
+        }
+
+        assertEquals(overruns + 1, metrics.getOverruns(), "One overrunning cycle");
+        assertEquals(skipped + 2, metrics.getSkippedCycles());
+        assertFalse(cycle.isStale());
+        assertTrue(metrics.getLastCompletedCycle() > 0);
+        // the time of the last update is always shown
+        assertTrue(cycle.caption("JVM Version").startsWith("JVM Version (last updated "), cycle.caption("JVM Version"));
+
+        assertTrue(cycle.start(), "Next cycle runs once the previous one is over");
+        cycle.end(0);
+    }
+}
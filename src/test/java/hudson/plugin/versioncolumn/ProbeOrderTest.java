@@ -0,0 +1,74 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.ExtensionList;
+import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.remoting.VirtualChannel;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+import org.mockito.InOrder;
+
+class ProbeOrderTest {
+
+    @Test
+    void testNewChannelsComeFirstAndStableAgentsLast() {
+        Computer stable = computer("probe-order-stable", true, 5);
+        Computer disconnected = mock(Computer.class);
+        when(disconnected.getName()).thenReturn("probe-order-disconnected");
+        Computer recent = computer("probe-order-recent", true, 1);
+        Computer mismatched = computer("probe-order-mismatched", true, 0);
+        when(mismatched.isOffline()).thenReturn(true);
+        when(mismatched.getOfflineCause()).thenReturn(new JVMVersionMonitor.JVMMismatchCause("mismatch"));
+        Computer fresh = computer("probe-order-new", false, 0);
+
+        List<Computer> sorted = ProbeOrder.sort(
+                new Computer[] {stable, disconnected, recent, mismatched, fresh},
+                VersionHistory.Kind.JVM,
+                JVMVersionMonitor.JVMMismatchCause.class);
+
+        assertEquals(List.of(fresh, mismatched, recent, stable, disconnected), sorted);
+    }
+
+    @Test
+    @WithJenkins
+    void testCycleProbesNewChannelsBeforeClassifyingOthers(JenkinsRule j) throws Exception {
+        ComputerSet.getMonitors().replace(new JVMVersionMonitor());
+        JVMVersionMonitor.JvmVersionDescriptor descriptor =
+                ExtensionList.lookupSingleton(JVMVersionMonitor.JvmVersionDescriptor.class);
+        // known to be incompatible, so classifying it takes it offline
+        Computer outdated = computer("probe-order-cycle-outdated", false, 0);
+        AgentVersionStore.get().recordJvmVersion(outdated, outdated.getChannel(), "1.8.0");
+        Computer fresh = computer("probe-order-cycle-new", false, 0);
+        VirtualChannel freshChannel = fresh.getChannel();
+        String[] versions = new String[2];
+        versions[VersionProbe.JVM] = Runtime.version().toString();
+        doReturn(CompletableFuture.completedFuture(versions)).when(freshChannel).callAsync(any());
+
+        descriptor.monitorAll(new Computer[] {outdated, fresh}, 30_000);
+
+        InOrder order = inOrder(freshChannel, outdated);
+        order.verify(freshChannel).callAsync(any());
+        order.verify(outdated).setTemporaryOfflineCause(any(JVMVersionMonitor.JVMMismatchCause.class));
+    }
+
+    private static Computer computer(String name, boolean known, int streak) {
+        Computer computer = mock(Computer.class);
+        VirtualChannel channel = mock(VirtualChannel.class);
+        when(computer.getName()).thenReturn(name);
+        when(computer.getChannel()).thenReturn(channel);
+        AgentVersionStore.get().remove(name);
+        if (known) {
+            AgentVersionStore.get().recordJvmVersion(computer, channel, "21.0.9");
+        }
+        for (int i = 0; i < streak; i++) {
+            AgentVersionStore.get().observe(name, VersionHistory.Kind.JVM, true);
+        }
+        return computer;
+    }
+}
@@ -0,0 +1,73 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.model.Computer;
+import hudson.remoting.VirtualChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ReadinessTest {
+
+    @AfterEach
+    void clearTargets() {
+        AgentVersionStore.get().retarget(VersionHistory.Kind.JVM, null);
+        AgentVersionStore.get().retarget(VersionHistory.Kind.REMOTING, null);
+    }
+
+    @Test
+    void testCountsFollowResults() {
+        AgentVersionStore store = new AgentVersionStore(10);
+        VirtualChannel channel = mock(VirtualChannel.class);
+        for (String name : new String[] {"a", "b", "c"}) {
+            store.recordRemotingVersion(name, channel, "3309.v27b_9314fd1a_4");
+        }
+        store.retarget(VersionHistory.Kind.REMOTING, "3400.v1234");
+        Readiness readiness = Readiness.REMOTING;
+        assertEquals(-1, readiness.getPercentReady());
+
+        store.recordReadiness("a", VersionHistory.Kind.REMOTING, Readiness.READY);
+        store.recordReadiness("b", VersionHistory.Kind.REMOTING, Readiness.NOT_READY);
+        store.recordReadiness("c", VersionHistory.Kind.REMOTING, Readiness.READY);
+        store.recordReadiness("c", VersionHistory.Kind.REMOTING, Readiness.READY);
+        assertEquals(2, readiness.getReady());
+        assertEquals(1, readiness.getNotReady());
+        assertEquals(66, readiness.getPercentReady());
+
+        store.recordReadiness("b", VersionHistory.Kind.REMOTING, Readiness.READY);
+        assertEquals(3, readiness.getReady());
+        assertEquals(0, readiness.getNotReady());
+
+        store.detach("c");
+        store.remove("a");
+        assertEquals(1, readiness.getReady());
+        assertEquals("Remoting Version (100% ready for 3400.v1234)", readiness.caption("Remoting Version"));
+
+        store.retarget(VersionHistory.Kind.REMOTING, "3500.v5678");
+        assertEquals(0, readiness.getReady());
+        assertEquals("Remoting Version", readiness.caption("Remoting Version"));
+    }
+
+    @Test
+    void testMonitorResultsAreCountedAgainstTheTarget() {
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("readiness-agent");
+        VirtualChannel channel = mock(VirtualChannel.class);
+        when(computer.getChannel()).thenReturn(channel);
+        AgentVersionStore.get().recordJvmVersion(computer, channel, Runtime.version().toString());
+        JVMVersionMonitor monitor = new JVMVersionMonitor();
+        JVMVersionMonitor.JvmVersionDescriptor descriptor = new JVMVersionMonitor.JvmVersionDescriptor();
+
+        monitor.setTargetJvmVersion(String.valueOf(Runtime.version().feature() + 1));
+        descriptor.markNodeOfflineOrOnline(computer, Runtime.version().toString(), monitor);
+        assertEquals(0, Readiness.JVM.getReady());
+        assertEquals(1, Readiness.JVM.getNotReady());
+
+        monitor.setTargetJvmVersion(String.valueOf(Runtime.version().feature()));
+        descriptor.markNodeOfflineOrOnline(computer, Runtime.version().toString(), monitor);
+        assertEquals(1, Readiness.JVM.getReady());
+        assertEquals(0, Readiness.JVM.getNotReady());
+        AgentVersionStore.get().remove("readiness-agent");
+    }
+}
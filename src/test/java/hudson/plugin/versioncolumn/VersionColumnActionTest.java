@@ -0,0 +1,82 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import hudson.model.ComputerSet;
+import hudson.slaves.DumbSlave;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.htmlunit.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class VersionColumnActionTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        j = rule;
+    }
+
+    @Test
+    void testDataPayload() throws Exception {
+        ComputerSet.getMonitors().replace(new JVMVersionMonitor());
+
+        Page page = j.createWebClient().goTo(VersionColumnAction.URL_NAME + "/data", "application/json");
+        JSONObject payload = JSONObject.fromObject(page.getWebResponse().getContentAsString());
+
+        JSONArray rows = payload.getJSONArray("jvmVersion");
+        assertEquals(1, rows.size());
+        JSONArray row = rows.getJSONArray(0);
+        assertEquals("", row.getString(0));
+        assertEquals(3, row.size());
+    }
+
+    @Test
+    void testDataPayloadIncludesDrainState() throws Exception {
+        ComputerSet.getMonitors().replace(new JVMVersionMonitor());
+        DumbSlave agent = j.createOnlineSlave();
+        assertTrue(AgentVersionStore.get().startDraining(agent.getNodeName(), VersionHistory.Kind.JVM));
+
+        JSONObject payload = VersionColumnAction.buildPayload();
+
+        for (Object row : payload.getJSONArray("jvmVersion")) {
+            JSONArray columns = (JSONArray) row;
+            if (columns.getString(0).equals(agent.getNodeName())) {
+                assertEquals(Drain.describe(agent.toComputer(), VersionHistory.Kind.JVM), columns.getString(3));
+            } else {
+                assertEquals(3, columns.size(), "Only draining agents have a drain state");
+            }
+        }
+    }
+
+    @Test
+    void testClientSideRenderingPage() throws Exception {
+        JVMVersionMonitor jvm = new JVMVersionMonitor();
+        jvm.setClientSideRendering(true);
+        ComputerSet.getMonitors().replace(jvm);
+
+        String html = j.createWebClient().goTo("computer/").getWebResponse().getContentAsString();
+        assertTrue(html.contains("data-versioncolumn-monitor=\"jvmVersion\""), html);
+    }
+
+    @Test
+    void testSimulationLinksToAgents() throws Exception {
+        ComputerSet.getMonitors().replace(new JVMVersionMonitor());
+        DumbSlave agent = j.createSlave("an agent", null, null);
+        AgentVersionStore store = AgentVersionStore.get();
+        store.recordJvmVersion(agent.toComputer(), j.jenkins.getChannel(), "17.0.1");
+        store.recordJvmVersion(j.jenkins.toComputer(), j.jenkins.getChannel(), "17.0.1");
+
+        String html = j.createWebClient()
+                .goTo(VersionColumnAction.URL_NAME + "/simulation/?comparisonMode=EXACT_MATCH")
+                .getWebResponse()
+                .getContentAsString();
+        assertTrue(html.contains("href=\"" + j.contextPath + "/computer/an%20agent/\""), html);
+        assertTrue(html.contains("href=\"" + j.contextPath + "/computer/(built-in)/\""), html);
+    }
+}
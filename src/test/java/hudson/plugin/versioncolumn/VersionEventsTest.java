@@ -0,0 +1,60 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import hudson.model.Computer;
+import java.nio.file.Path;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VersionEventsTest {
+
+    @Test
+    void testEventsAreDisabledByDefault() {
+        assertNull(VersionEvents.startProbe());
+        assertNull(VersionEvents.startCycle());
+    }
+
+    @Test
+    void testEventsAreRecordedWhenEnabled(@TempDir Path dir) throws Exception {
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("agent");
+        Path file = dir.resolve("recording.jfr");
+
+        try (Recording recording = new Recording()) {
+            recording.enable("hudson.plugin.versioncolumn.Probe").withoutThreshold();
+            recording.enable("hudson.plugin.versioncolumn.Enforcement");
+            recording.start();
+            VersionEvents.Probe probe = VersionEvents.startProbe();
+            assertNotNull(probe);
+            VersionEvents.endProbe(
+                    probe, computer, VersionProbe.class, VersionEvents.SOURCE_CYCLE, VersionEvents.OUTCOME_OK);
+            VersionEvents.enforcement(computer, VersionHistory.Kind.JVM, VersionEvents.ACTION_OFFLINE, "17.0.17");
+            // not enabled in this recording
+            VersionEvents.endCycle(VersionEvents.startCycle(), VersionHistory.Kind.JVM, 1, 1, false);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(2, events.size(), events.toString());
+        RecordedEvent probe = events.stream()
+                .filter(e -> e.getEventType().getName().equals("hudson.plugin.versioncolumn.Probe"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("agent", probe.getString("agent"));
+        assertEquals("VersionProbe", probe.getString("callable"));
+        assertEquals("ok", probe.getString("outcome"));
+        RecordedEvent enforcement = events.stream()
+                .filter(e -> e.getEventType().getName().equals("hudson.plugin.versioncolumn.Enforcement"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("offline", enforcement.getString("action"));
+        assertEquals("17.0.17", enforcement.getString("version"));
+    }
+}
@@ -0,0 +1,69 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class VersionHistoryTest {
+
+    @Test
+    void testOnlyChangesAreRecorded() {
+        VersionHistory history = new VersionHistory(8);
+
+        assertTrue(history.record(1, VersionHistory.Kind.JVM, "21.0.9", CompatibilityState.OK));
+        assertFalse(history.record(2, VersionHistory.Kind.JVM, "21.0.9", CompatibilityState.OK));
+        assertTrue(history.record(3, VersionHistory.Kind.REMOTING, "3327.v868139a_d00e0", CompatibilityState.OK));
+        // the latest JVM event is still the first one, even though a remoting one came after it
+        assertFalse(history.record(4, VersionHistory.Kind.JVM, "21.0.9", CompatibilityState.OK));
+        assertTrue(history.record(5, VersionHistory.Kind.JVM, "17.0.17", CompatibilityState.MISMATCH));
+        assertTrue(history.record(6, VersionHistory.Kind.JVM, "21.0.9", CompatibilityState.OK));
+
+        List<VersionHistory.Event> events = history.getEvents();
+        assertEquals(4, events.size());
+        assertEquals(1, events.get(0).getTimestamp());
+        assertEquals(VersionHistory.Kind.REMOTING, events.get(1).getKind());
+        assertEquals("17.0.17", events.get(2).getVersion());
+        assertEquals(CompatibilityState.MISMATCH, events.get(2).getState());
+        assertEquals(6, events.get(3).getTimestamp());
+    }
+
+    @Test
+    void testOldestEventsAreOverwritten() {
+        VersionHistory history = new VersionHistory(3);
+
+        for (int i = 0; i < 10; i++) {
+            history.record(i, VersionHistory.Kind.JVM, i % 2 == 0 ? "21.0.9" : "17.0.17", CompatibilityState.OK);
+        }
+
+        List<VersionHistory.Event> events = history.getEvents();
+        assertEquals(3, events.size());
+        assertEquals(7, events.get(0).getTimestamp());
+        assertEquals(9, events.get(2).getTimestamp());
+    }
+
+    @Test
+    void testNullVersion() {
+        VersionHistory history = new VersionHistory(2);
+
+        history.record(1, VersionHistory.Kind.REMOTING, null, CompatibilityState.UNKNOWN);
+
+        assertNull(history.getEvents().get(0).getVersion());
+        assertEquals(CompatibilityState.UNKNOWN, history.getEvents().get(0).getState());
+    }
+
+    @Test
+    void testManyDistinctVersionsAreKept() {
+        VersionHistory history = new VersionHistory(2);
+
+        // far more versions than agents would ever run at once, each one must still be reported as is
+        for (int i = 0; i < 10_000; i++) {
+            history.record(i, VersionHistory.Kind.JVM, "21.0." + i, CompatibilityState.OK);
+        }
+
+        List<VersionHistory.Event> events = history.getEvents();
+        assertEquals("21.0.9998", events.get(0).getVersion());
+        assertEquals("21.0.9999", events.get(1).getVersion());
+        assertSame(events.get(1).getVersion(), VersionKeys.intern(new StringBuilder("21.0.").append(9999).toString()));
+    }
+}
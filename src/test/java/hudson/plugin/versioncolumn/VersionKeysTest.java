@@ -0,0 +1,37 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class VersionKeysTest {
+
+    private static String copy(String version) {
+        return new StringBuilder(version).toString();
+    }
+
+    @Test
+    void testEqualVersionsShareOneInstance() {
+        String shared = VersionKeys.intern(copy("21.0.1+12-testEqualVersionsShareOneInstance"));
+        assertSame(shared, VersionKeys.intern(copy("21.0.1+12-testEqualVersionsShareOneInstance")));
+        assertNull(VersionKeys.intern(null));
+    }
+
+    @Test
+    void testFullTableReturnsVersionsUnshared() {
+        String shared = VersionKeys.intern(copy("21.0.2+13-testFullTableReturnsVersionsUnshared"));
+        int maxKeys = VersionKeys.MAX_KEYS;
+        VersionKeys.MAX_KEYS = 0;
+        try {
+            // versions already in the table are still shared
+            assertSame(shared, VersionKeys.intern(copy("21.0.2+13-testFullTableReturnsVersionsUnshared")));
+
+            String unshared = copy("25.0.1+8-testFullTableReturnsVersionsUnshared");
+            assertSame(unshared, VersionKeys.intern(unshared));
+            String other = copy("25.0.1+8-testFullTableReturnsVersionsUnshared");
+            assertSame(other, VersionKeys.intern(other));
+        } finally {
+            VersionKeys.MAX_KEYS = maxKeys;
+        }
+    }
+}
@@ -6,11 +6,14 @@ import static org.mockito.Mockito.*;
 import hudson.Proc;
 import hudson.Util;
 import hudson.model.Computer;
+import hudson.model.ComputerSet;
+import hudson.remoting.Channel;
 import hudson.remoting.Launcher;
 import hudson.remoting.VirtualChannel;
 import hudson.slaves.DumbSlave;
 import hudson.slaves.OfflineCause;
 import java.io.IOException;
+import java.util.Map;
 import jenkins.security.MasterToSlaveCallable;
 import jenkins.slaves.RemotingVersionInfo;
 import org.junit.jupiter.api.BeforeAll;
@@ -78,6 +81,18 @@ class VersionMonitorTest {
         assertEquals("unknown-version", descriptor.monitor(computer));
     }
 
+    @Test
+    void testCycleReportsDisconnectedAgents() throws Exception {
+        DumbSlave agent = j.createSlave();
+        assertNull(agent.toComputer().getChannel());
+
+        Map<Computer, String> result = descriptor.monitor();
+
+        assertTrue(result.containsKey(agent.toComputer()));
+        assertNull(result.get(agent.toComputer()));
+        j.jenkins.removeNode(agent);
+    }
+
     @Test
     void testMonitor_SameVersion() throws Exception {
         DumbSlave agent = j.createOnlineSlave();
@@ -86,6 +101,18 @@ class VersionMonitorTest {
         assertEquals(Launcher.VERSION, descriptor.monitor(computer));
     }
 
+    @Test
+    void testRemotingVersionIsReadFromChannel() throws Exception {
+        ComputerSet.getMonitors().replace(versionMonitor);
+        DumbSlave agent = j.createOnlineSlave();
+        Computer computer = agent.getComputer();
+
+        assertEquals(Launcher.VERSION, ((Channel) computer.getChannel()).getProperty(VersionMonitor.REMOTING_VERSION));
+        AgentVersionStore.get().remove(agent.getNodeName());
+        assertEquals(Launcher.VERSION, VersionMonitor.getRemotingVersion(computer.getChannel()));
+        assertEquals(Launcher.VERSION, VersionMonitor.getRemotingVersion(j.jenkins.toComputer().getChannel()));
+    }
+
     @Test
     void testMonitor_DifferentVersion_Ignored() throws IOException, InterruptedException {
         VersionMonitor.DescriptorImpl mockDescriptor = spy(new VersionMonitor.DescriptorImpl());
@@ -128,6 +155,25 @@ class VersionMonitorTest {
         verify(computer).setTemporaryOfflineCause(any(VersionMonitor.RemotingVersionMismatchCause.class));
     }
 
+    @Test
+    void testMonitor_DifferentVersion_AlreadyOffline() throws IOException, InterruptedException {
+        VersionMonitor.DescriptorImpl mockDescriptor = spy(new VersionMonitor.DescriptorImpl());
+        doReturn(false).when(mockDescriptor).isIgnored();
+
+        Computer computer = mock(Computer.class);
+        VirtualChannel channel = mock(VirtualChannel.class);
+        when(computer.getChannel()).thenReturn(channel);
+        when(computer.getName()).thenReturn("test-computer");
+        when(computer.getTemporaryOfflineCause()).thenReturn(new OfflineCause.UserCause(null, "maintenance"));
+        when(channel.call(ArgumentMatchers.<MasterToSlaveCallable<String, IOException>>any()))
+                .thenReturn("different-version");
+
+        mockDescriptor.monitor(computer);
+
+        // the cause set by the user is kept, and no mismatch cause is even created
+        verify(computer, never()).setTemporaryOfflineCause(any());
+    }
+
     @Test
     void testMonitor_VersionIsNull_Ignored() throws IOException, InterruptedException {
         VersionMonitor.DescriptorImpl mockDescriptor = spy(new VersionMonitor.DescriptorImpl());
@@ -185,6 +231,70 @@ class VersionMonitorTest {
         verify(computer, never()).setTemporarilyOffline(eq(false), any());
     }
 
+    @Test
+    void testMismatchesBelowOfflineThresholdKeepAgentOnline() {
+        VersionMonitor.DescriptorImpl mockDescriptor = spy(new VersionMonitor.DescriptorImpl());
+        doReturn(false).when(mockDescriptor).isIgnored();
+
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("testMismatchesBelowOfflineThresholdKeepAgentOnline");
+        AgentVersionStore.get().recordRemotingVersion(computer, mock(VirtualChannel.class), "different-version");
+        versionMonitor.setOfflineThreshold(3);
+        long suppressed = MonitorMetrics.REMOTING.getSuppressedOffline();
+
+        mockDescriptor.markNodeOfflineOrOnline(computer, "different-version", versionMonitor);
+        mockDescriptor.markNodeOfflineOrOnline(computer, "different-version", versionMonitor);
+        verify(computer, never()).setTemporaryOfflineCause(any());
+        assertEquals(suppressed + 2, MonitorMetrics.REMOTING.getSuppressedOffline());
+
+        // the third one in a row takes it offline
+        mockDescriptor.markNodeOfflineOrOnline(computer, "different-version", versionMonitor);
+        verify(computer).setTemporaryOfflineCause(any(VersionMonitor.RemotingVersionMismatchCause.class));
+
+        AgentVersionStore.get().remove(computer.getName());
+    }
+
+    @Test
+    void testMatchResetsMismatchStreak() {
+        VersionMonitor.DescriptorImpl mockDescriptor = spy(new VersionMonitor.DescriptorImpl());
+        doReturn(false).when(mockDescriptor).isIgnored();
+
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("testMatchResetsMismatchStreak");
+        AgentVersionStore.get().recordRemotingVersion(computer, mock(VirtualChannel.class), "different-version");
+        versionMonitor.setOfflineThreshold(2);
+
+        mockDescriptor.markNodeOfflineOrOnline(computer, "different-version", versionMonitor);
+        mockDescriptor.markNodeOfflineOrOnline(computer, Launcher.VERSION, versionMonitor);
+        mockDescriptor.markNodeOfflineOrOnline(computer, "different-version", versionMonitor);
+        verify(computer, never()).setTemporaryOfflineCause(any());
+
+        mockDescriptor.markNodeOfflineOrOnline(computer, "different-version", versionMonitor);
+        verify(computer).setTemporaryOfflineCause(any(VersionMonitor.RemotingVersionMismatchCause.class));
+
+        AgentVersionStore.get().remove(computer.getName());
+    }
+
+    @Test
+    void testMatchesBelowOnlineThresholdKeepAgentOffline() {
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("testMatchesBelowOnlineThresholdKeepAgentOffline");
+        when(computer.isOffline()).thenReturn(true);
+        when(computer.getOfflineCause()).thenReturn(new VersionMonitor.RemotingVersionMismatchCause("Mismatch"));
+        AgentVersionStore.get().recordRemotingVersion(computer, mock(VirtualChannel.class), Launcher.VERSION);
+        versionMonitor.setOnlineThreshold(2);
+        long suppressed = MonitorMetrics.REMOTING.getSuppressedOnline();
+
+        descriptor.markNodeOfflineOrOnline(computer, Launcher.VERSION, versionMonitor);
+        verify(computer, never()).setTemporarilyOffline(anyBoolean(), any());
+        assertEquals(suppressed + 1, MonitorMetrics.REMOTING.getSuppressedOnline());
+
+        descriptor.markNodeOfflineOrOnline(computer, Launcher.VERSION, versionMonitor);
+        verify(computer).setTemporarilyOffline(false, null);
+
+        AgentVersionStore.get().remove(computer.getName());
+    }
+
     @Test
     void testRemotingVersionMismatchCause() {
         String message = "Version mismatch";
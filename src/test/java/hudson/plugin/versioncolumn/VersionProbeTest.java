@@ -0,0 +1,64 @@
+package hudson.plugin.versioncolumn;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import hudson.model.ComputerSet;
+import hudson.remoting.Channel;
+import hudson.remoting.Launcher;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.DumbSlave;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import jenkins.security.MasterToSlaveCallable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class VersionProbeTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        j = rule;
+    }
+
+    @Test
+    void testFirstContactLoadsASingleClass() throws Exception {
+        // no monitor, so that nothing but this test talks to the agent once it is connected
+        ComputerSet.getMonitors().replaceBy(List.of());
+        DumbSlave agent = j.createOnlineSlave();
+        VirtualChannel channel = agent.getChannel();
+        channel.call(new ClassLoadingCount());
+        int before = channel.call(new ClassLoadingCount());
+
+        String[] versions = channel.call(new VersionProbe());
+
+        int after = channel.call(new ClassLoadingCount());
+        assertEquals(1, after - before, "classes loaded remotely by the agent");
+        assertEquals(Runtime.version().toString(), versions[VersionProbe.JVM]);
+        assertEquals(Launcher.VERSION, versions[VersionProbe.REMOTING]);
+    }
+
+    @Test
+    void testProbeDoesNotReferToOtherPluginClasses() throws Exception {
+        assertNull(VersionProbe.class.getEnclosingClass());
+        assertEquals(0, VersionProbe.class.getDeclaredClasses().length);
+        String self = VersionProbe.class.getName().replace('.', '/');
+        try (InputStream in = VersionProbe.class.getResourceAsStream("VersionProbe.class")) {
+            String constants = new String(in.readAllBytes(), StandardCharsets.ISO_8859_1).replace(self, "");
+            assertFalse(constants.contains("hudson/plugin/versioncolumn/"), "refers to another class of the plugin");
+            assertFalse(constants.contains("jenkins/model/"), "refers to Jenkins core");
+        }
+    }
+
+    private static final class ClassLoadingCount extends MasterToSlaveCallable<Integer, RuntimeException> {
+        @Override
+        public Integer call() {
+            return Channel.currentOrFail().classLoadingCount.get();
+        }
+    }
+}
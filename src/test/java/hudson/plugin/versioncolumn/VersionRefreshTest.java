@@ -0,0 +1,120 @@
+package hudson.plugin.versioncolumn;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import hudson.cli.CLICommandInvoker;
+import hudson.model.Computer;
+import hudson.model.Label;
+import hudson.remoting.Launcher;
+import hudson.remoting.VirtualChannel;
+import hudson.slaves.DumbSlave;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import net.sf.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.junit.jupiter.WithJenkins;
+
+@WithJenkins
+class VersionRefreshTest {
+
+    private JenkinsRule j;
+
+    @BeforeEach
+    void setUp(JenkinsRule rule) {
+        j = rule;
+    }
+
+    @Test
+    void testSelection() throws Exception {
+        DumbSlave reimaged = j.createOnlineSlave(Label.get("reimaged"));
+        DumbSlave other = j.createOnlineSlave();
+
+        assertEquals(List.of(reimaged.toComputer()), VersionRefresh.select("reimaged", null));
+        assertEquals(
+                List.of(reimaged.toComputer(), other.toComputer()),
+                VersionRefresh.select(null, other.getNodeName() + ", " + reimaged.getNodeName()));
+        assertThrows(IllegalArgumentException.class, () -> VersionRefresh.select(" ", null));
+        assertThrows(IllegalArgumentException.class, () -> VersionRefresh.select(null, "missing"));
+        assertThrows(IllegalArgumentException.class, () -> VersionRefresh.select("reimaged &&", null));
+    }
+
+    @Test
+    void testOfflineAgents() throws Exception {
+        DumbSlave online = j.createOnlineSlave(Label.get("reimaged"));
+        DumbSlave offline = j.createSlave(Label.get("reimaged"));
+        assertNull(offline.toComputer().getChannel());
+
+        // only connected agents are selected by label
+        assertEquals(List.of(online.toComputer()), VersionRefresh.select("reimaged", null));
+        // a named one is selected anyway, and reported as offline
+        List<Computer> named = VersionRefresh.select(null, offline.getNodeName());
+        assertEquals(List.of(offline.toComputer()), named);
+        JSONObject results = VersionRefresh.refresh(named);
+        assertTrue(results.getJSONObject(offline.getNodeName()).has("error"), results.toString());
+    }
+
+    @Test
+    void testConcurrentRefreshesShareOneProbe() throws Exception {
+        DumbSlave agent = j.createOnlineSlave();
+        Computer computer = agent.toComputer();
+        AgentVersionStore.get().detach(computer.getName());
+
+        CompletableFuture<String[]> first = VersionRefresh.refresh(computer);
+        CompletableFuture<String[]> second = VersionRefresh.refresh(computer);
+        assertTrue(second == first || first.isDone(), "Overlapping refreshes should share the probe");
+        assertEquals(Runtime.version().toString(), first.get()[VersionProbe.JVM]);
+        assertEquals(
+                Runtime.version().toString(), AgentVersionStore.get().getJvmVersion(computer, computer.getChannel()));
+        assertEquals(Launcher.VERSION, AgentVersionStore.get().getRemotingVersion(computer, computer.getChannel()));
+    }
+
+    @Test
+    void testUnansweredProbeIsCancelled() throws Exception {
+        VirtualChannel channel = mock(VirtualChannel.class);
+        CompletableFuture<String[]> call = new CompletableFuture<>();
+        doReturn(call).when(channel).callAsync(any());
+        Computer computer = mock(Computer.class);
+        when(computer.getName()).thenReturn("testUnansweredProbeIsCancelled");
+        when(computer.getChannel()).thenReturn(channel);
+        long timeout = VersionRefresh.TIMEOUT;
+        VersionRefresh.TIMEOUT = 100;
+        try {
+            CompletableFuture<String[]> probe = VersionRefresh.refresh(computer);
+            ExecutionException x = assertThrows(ExecutionException.class, probe::get);
+            assertInstanceOf(TimeoutException.class, x.getCause());
+            assertTrue(call.isCancelled());
+
+            // the next refresh is not held back by the one that timed out
+            CompletableFuture<String[]> next;
+            do {
+                next = VersionRefresh.refresh(computer);
+            } while (next == probe);
+            assertThrows(ExecutionException.class, next::get);
+        } finally {
+            VersionRefresh.TIMEOUT = timeout;
+        }
+    }
+
+    @Test
+    void testCommand() throws Exception {
+        DumbSlave agent = j.createOnlineSlave(Label.get("reimaged"));
+
+        CLICommandInvoker.Result result =
+                new CLICommandInvoker(j, "refresh-agent-versions").invokeWithArgs("-label", "reimaged");
+        assertEquals(0, result.returnCode(), result.stderr());
+        assertThat(result.stdout(), containsString(agent.getNodeName() + ": JVM " + Runtime.version()));
+
+        result = new CLICommandInvoker(j, "refresh-agent-versions").invokeWithArgs("missing");
+        assertNotEquals(0, result.returnCode());
+    }
+}